@@ -0,0 +1,56 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.BettingGameApplication;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Boots the application without the web server or the round scheduler, so benchmarks
+ * drive rounds themselves against an in-memory H2 database.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        Path ledgerDir = ledgerDirectory(databaseName);
+        // Command-line arguments, so they win over the application.properties on the test classpath
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BettingGameApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--app.scheduling.enabled=false",
+                        "--app.ledger.journal-dir=" + ledgerDir,
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.bettinggame=WARN");
+        deleteOnClose(context, ledgerDir);
+        return context;
+    }
+
+    // A fresh ledger journal per run: a fixed directory would replay the previous run's
+    // segments into the new in-memory database
+    static Path ledgerDirectory(String name) {
+        try {
+            return Files.createTempDirectory("jmh-ledger-" + name + "-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Beans are destroyed after the lifecycle stops, so the ledger has flushed and closed its journal by then
+    static void deleteOnClose(ConfigurableApplicationContext context, Path ledgerDir) {
+        ((DefaultListableBeanFactory) context.getBeanFactory()).registerDisposableBean("benchmarkLedgerDir",
+                () -> FileSystemUtils.deleteRecursively(ledgerDir));
+    }
+}
@@ -0,0 +1,61 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.journal.FsyncPolicy;
+import com.bettinggame.journal.MappedBetJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append throughput of the {@link MappedBetJournal} per fsync policy. {@code GROUP} includes
+ * waiting for the periodic force the way {@code JournalBetStore} acknowledges bets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BetJournalBenchmark {
+
+    @Param({"NONE", "GROUP", "ALWAYS"})
+    private FsyncPolicy fsync;
+
+    private Path directory;
+    private MappedBetJournal journal;
+    private ScheduledExecutorService forcer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bet-journal-bench");
+        journal = new MappedBetJournal(directory, 64 * 1024 * 1024, fsync, 0);
+        forcer = Executors.newSingleThreadScheduledExecutor();
+        forcer.scheduleAtFixedRate(journal::force, 2, 2, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        forcer.shutdownNow();
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long append() throws InterruptedException {
+        long sequence = journal.append(42L, 7L, 5, 10_000L, System.currentTimeMillis());
+        if (fsync == FsyncPolicy.GROUP) {
+            journal.awaitDurable(sequence, 1_000);
+        }
+        return sequence;
+    }
+}
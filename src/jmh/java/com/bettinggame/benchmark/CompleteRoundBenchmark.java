@@ -0,0 +1,80 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.repository.GameRoundRepository;
+import com.bettinggame.service.GameService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameService#completeRound} for a round with a given number of bets. Bets are
+ * inserted with plain JDBC before each invocation so only settlement is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CompleteRoundBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int bets;
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private GameRoundRepository gameRoundRepository;
+    private JdbcTemplate jdbcTemplate;
+    private List<Long> playerIds;
+    private GameRound round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("complete-round-" + bets);
+        gameService = context.getBean(GameService.class);
+        gameRoundRepository = context.getBean(GameRoundRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> players = new ArrayList<>(bets);
+        for (int i = 0; i < bets; i++) {
+            players.add(new Object[]{"bench" + i, BigDecimal.valueOf(1_000_000), BigDecimal.ZERO, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO players (nickname, balance, total_winnings, created_at) VALUES (?, ?, ?, ?)", players);
+        playerIds = jdbcTemplate.queryForList("SELECT id FROM players ORDER BY id", Long.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void openRoundWithBets() {
+        round = gameRoundRepository.save(GameRound.builder()
+                .status(GameRound.GameRoundStatus.BETTING_CLOSED)
+                .build());
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(bets);
+        for (int i = 0; i < bets; i++) {
+            rows.add(new Object[]{playerIds.get(i), round.getId(), i % 10 + 1, BigDecimal.TEN, false, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bets (player_id, game_round_id, bet_number, bet_amount, is_winner, placed_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public GameRoundResult completeRound() {
+        return gameService.completeRound(round);
+    }
+}
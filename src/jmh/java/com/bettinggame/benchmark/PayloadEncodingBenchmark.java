@@ -0,0 +1,77 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.config.CborMessageConverter;
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.GameState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time of the broadcast payloads as JSON (the broker's default) and as the compact CBOR
+ * sent to {@code /topic/cbor/...} subscribers. Bytes per message don't vary between iterations,
+ * so they are printed once per trial instead of measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"10", "1000"})
+    private int winners;
+
+    private ObjectMapper objectMapper;
+    private GameRoundResult result;
+    private GameState gameState;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = "cbor".equals(format)
+                ? new CborMessageConverter().getObjectMapper()
+                : Jackson2ObjectMapperBuilder.json().build();
+
+        GameRoundResult.WinnerInfo[] winnerInfos = new GameRoundResult.WinnerInfo[winners];
+        for (int i = 0; i < winners; i++) {
+            winnerInfos[i] = new GameRoundResult.WinnerInfo("bench" + i, BigDecimal.valueOf(9_900 + i, 2));
+        }
+        result = GameRoundResult.builder()
+                .roundId(1L)
+                .winningNumber(7)
+                .endTime(LocalDateTime.now())
+                .winners(winnerInfos)
+                .build();
+
+        gameState = GameState.builder()
+                .tableId(1)
+                .currentRoundId(1L)
+                .bettingOpen(true)
+                .phase("BETTING_OPEN")
+                .bettingClosesAt(System.currentTimeMillis() + 10_000)
+                .serverTime(System.currentTimeMillis())
+                .build();
+
+        System.out.printf("%n%s: round-results %d bytes (%d winners), game-state %d bytes%n", format,
+                objectMapper.writeValueAsBytes(result).length, winners, objectMapper.writeValueAsBytes(gameState).length);
+    }
+
+    @Benchmark
+    public byte[] encodeRoundResult() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] encodeGameState() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gameState);
+    }
+}
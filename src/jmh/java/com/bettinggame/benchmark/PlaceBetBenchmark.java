@@ -0,0 +1,67 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.dto.BetRequest;
+import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.model.Bet;
+import com.bettinggame.service.GameService;
+import com.bettinggame.service.PlayerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameService#placeBet} through the real transactional path. Each player bets once
+ * per round, so a new round is opened whenever the player pool has been used up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceBetBenchmark {
+
+    private static final int PLAYERS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private BetRequest[] requests;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("place-bet");
+        gameService = context.getBean(GameService.class);
+        PlayerService playerService = context.getBean(PlayerService.class);
+
+        requests = new BetRequest[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            PlayerRegistrationRequest registration = new PlayerRegistrationRequest();
+            registration.setNickname("bench" + i);
+            registration.setInitialBalance(BigDecimal.valueOf(1_000_000_000L));
+            playerService.registerPlayer(registration);
+
+            BetRequest request = new BetRequest();
+            request.setNickname(registration.getNickname());
+            request.setBetNumber(i % 10 + 1);
+            request.setBetAmount(BigDecimal.TEN);
+            requests[i] = request;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Bet placeBet() {
+        int slot = next++ % PLAYERS;
+        if (slot == 0) {
+            gameService.createNewRound();
+        }
+        return gameService.placeBet(requests[slot]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.dto.PlayerSummary;
+import com.bettinggame.model.Player;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of the player endpoint response: the {@link Player} entity the endpoints used to
+ * return against the {@link PlayerSummary} they return now, each with reflective property access
+ * and with Blackbird's generated accessors. Run with {@code -prof gc} to compare bytes allocated
+ * per response alongside the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"entity", "dto"})
+    private String shape;
+
+    @Param({"reflection", "blackbird"})
+    private String accessors;
+
+    private ObjectMapper objectMapper;
+    private Object response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(accessors)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        Player player = Player.builder()
+                .id(42L)
+                .nickname("bench-player")
+                .balance(new BigDecimal("1234.50"))
+                .totalWinnings(new BigDecimal("990.00"))
+                .createdAt(LocalDateTime.now())
+                .build();
+        response = "entity".equals(shape) ? player : PlayerSummary.builder()
+                .id(player.getId())
+                .nickname(player.getNickname())
+                .balance(player.getBalance())
+                .totalWinnings(player.getTotalWinnings())
+                .createdAt(player.getCreatedAt())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializePlayer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,148 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.BettingGameApplication;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.service.GameService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tail latency of the REST API under a bet burst, with Tomcat requests on its platform
+ * thread pool and on virtual threads (with the JDBC concurrency limiter). Every round each
+ * player places a bet and reads their bet history at the same moment, like the rush just
+ * before betting closes. Not a JMH benchmark: latencies are measured per request from the
+ * client side.
+ * <p>
+ * Arguments: players (default 2000), measured rounds (default 20). The virtual-thread mode
+ * needs Java 21+ and is skipped on older runtimes.
+ */
+public final class RestLoadHarness {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private RestLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %9s %9s %9s %9s %9s %8s", "mode", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        report.add(run("platform", false, players, rounds));
+        if (Runtime.version().feature() >= 21) {
+            report.add(run("virtual", true, players, rounds));
+        } else {
+            report.add("virtual   skipped: needs Java 21+, running " + Runtime.version());
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, boolean virtualThreads, int players, int rounds) throws Exception {
+        Path ledgerDir = BenchmarkApplication.ledgerDirectory("load-" + mode);
+        // Command-line arguments, so they win over application.properties
+        var context = new SpringApplicationBuilder(BettingGameApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--app.scheduling.enabled=false",
+                        "--app.ledger.journal-dir=" + ledgerDir,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.bettinggame=WARN");
+        BenchmarkApplication.deleteOnClose(context, ledgerDir);
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            GameService gameService = context.getBean(GameService.class);
+            insertPlayers(context.getBean(JdbcTemplate.class), players);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            String base = "http://localhost:" + port + "/api";
+            long[] latencies = new long[rounds * players * 2];
+            int recorded = 0;
+            AtomicInteger errors = new AtomicInteger();
+
+            for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+                GameRound gameRound = gameService.createNewRound();
+                List<CompletableFuture<Long>> burst = new ArrayList<>(players * 2);
+                for (int player = 0; player < players; player++) {
+                    String nickname = "load" + player;
+                    burst.add(timed(client, HttpRequest.newBuilder(URI.create(base + "/bets"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"nickname\":\"" + nickname
+                                    + "\",\"betNumber\":" + (player % 10 + 1) + ",\"betAmount\":10}")), errors));
+                    burst.add(timed(client, HttpRequest.newBuilder(URI.create(base + "/players/" + nickname + "/bets?size=20"))
+                            .GET(), errors));
+                }
+                for (CompletableFuture<Long> request : burst) {
+                    long nanos = request.join();
+                    if (round >= WARMUP_ROUNDS) {
+                        latencies[recorded++] = nanos;
+                    }
+                }
+                gameService.completeRound(gameRound);
+            }
+
+            Arrays.sort(latencies, 0, recorded);
+            return String.format("%-9s %9.2f %9.2f %9.2f %9.2f %9.2f %8d", mode,
+                    millis(latencies, recorded, 0.50), millis(latencies, recorded, 0.90),
+                    millis(latencies, recorded, 0.99), millis(latencies, recorded, 0.999),
+                    latencies[recorded - 1] / 1e6, errors.get());
+        } finally {
+            clientExecutor.shutdownNow();
+            context.close();
+        }
+    }
+
+    private static CompletableFuture<Long> timed(HttpClient client, HttpRequest.Builder request, AtomicInteger errors) {
+        long start = System.nanoTime();
+        return client.sendAsync(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null || response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    }
+                    return System.nanoTime() - start;
+                });
+    }
+
+    private static void insertPlayers(JdbcTemplate jdbcTemplate, int players) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            rows.add(new Object[]{"load" + i, BigDecimal.valueOf(1_000_000), BigDecimal.ZERO, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO players (nickname, balance, total_winnings, created_at) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private static double millis(long[] sorted, int count, double percentile) {
+        int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,88 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.GameState;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.model.Player;
+import com.bettinggame.service.GameService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Winner DTO construction and the JSON encoding of the messages broadcast to clients.
+ * The ObjectMapper is configured the same way Spring Boot configures the broker's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundResultBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int winners;
+
+    private final GameService gameService = new GameService(null, null, null, null, null, null, null);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private GameRound round;
+    private List<Bet> winningBets;
+    private GameRoundResult result;
+    private GameState gameState;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        round = GameRound.builder()
+                .id(1L)
+                .winningNumber(7)
+                .status(GameRound.GameRoundStatus.COMPLETED)
+                .endTime(LocalDateTime.now())
+                .build();
+
+        winningBets = new ArrayList<>(winners);
+        for (int i = 0; i < winners; i++) {
+            Player player = Player.builder().id((long) i).nickname("bench" + i).build();
+            winningBets.add(Bet.builder()
+                    .player(player)
+                    .gameRound(round)
+                    .betNumber(7)
+                    .betAmount(BigDecimal.TEN)
+                    .winnings(BigDecimal.valueOf(99))
+                    .isWinner(true)
+                    .build());
+        }
+        result = gameService.buildResult(round, winningBets);
+
+        gameState = GameState.builder()
+                .currentRoundId(1L)
+                .timeRemaining(7L)
+                .bettingOpen(true)
+                .phase("BETTING_OPEN")
+                .build();
+    }
+
+    @Benchmark
+    public GameRoundResult buildWinners() {
+        return gameService.buildResult(round, winningBets);
+    }
+
+    @Benchmark
+    public byte[] serializeRoundResult() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] serializeGameState() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gameState);
+    }
+}
@@ -0,0 +1,133 @@
+package com.bettinggame.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the hot bet and round queries against the schema built by the Flyway
+ * migrations, with ({@code indexed=true}) and without the indexes and unique constraint
+ * they add. H2 indexes foreign keys on its own, so the "before" schema still has single
+ * column indexes on {@code bets.player_id} and {@code bets.game_round_id}, as the
+ * Hibernate-generated schema had. H2 also reads every bet of the player before applying
+ * the history page's LIMIT, index or not, so that query gains far more on a server database.
+ * <p>
+ * The default of 1M bets loads in well under a minute on a 2 GB heap; larger tables, such
+ * as {@code -p bets=10000000}, need {@code -jvmArgsAppend -Xmx8g} or more.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SchemaIndexBenchmark {
+
+    private static final int PLAYERS = 10_000;
+    private static final int BETS_PER_ROUND = 10;
+
+    @Param({"1000000"})
+    private int bets;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement betOfPlayerInRound;
+    private PreparedStatement betsOfRound;
+    private PreparedStatement playerHistory;
+    private PreparedStatement activeRound;
+    private int rounds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // Result reuse would answer repeated identical queries without touching the table
+        String url = "jdbc:h2:mem:schema-index-" + indexed + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        connection = DriverManager.getConnection(url, "sa", "");
+        rounds = bets / BETS_PER_ROUND;
+
+        try (Statement statement = connection.createStatement()) {
+            if (!indexed) {
+                statement.execute("DROP INDEX idx_bets_player_placed_at");
+                statement.execute("DROP INDEX idx_game_rounds_table_status_start_time");
+                statement.execute("ALTER TABLE bets DROP CONSTRAINT uk_bets_round_player");
+            }
+            statement.execute("INSERT INTO players (id, nickname, balance, total_winnings, created_at) " +
+                    "SELECT X, 'bench' || X, 1000, 0, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, " + PLAYERS + ")");
+            // One round per 30 seconds, all completed but the last
+            statement.execute("INSERT INTO game_rounds (id, table_id, winning_number, start_time, status) " +
+                    "SELECT X, 1, MOD(X, 10) + 1, DATEADD('SECOND', X * 30, TIMESTAMP '2024-01-01 00:00:00'), " +
+                    "CASE WHEN X = " + rounds + " THEN 'BETTING_OPEN' ELSE 'COMPLETED' END " +
+                    "FROM SYSTEM_RANGE(1, " + rounds + ")");
+            // Consecutive bets share a round and never a player within it
+            statement.execute("INSERT INTO bets (id, player_id, game_round_id, bet_number, bet_amount, is_winner, placed_at) " +
+                    "SELECT X, MOD(X, " + PLAYERS + ") + 1, X / " + BETS_PER_ROUND + " + 1, MOD(X, 10) + 1, 10, FALSE, " +
+                    "DATEADD('MILLISECOND', X * 3000, TIMESTAMP '2024-01-01 00:00:00') " +
+                    "FROM SYSTEM_RANGE(0, " + (bets - 1) + ")");
+            statement.execute("ANALYZE");
+        }
+
+        betOfPlayerInRound = connection.prepareStatement(
+                "SELECT id, bet_amount FROM bets WHERE game_round_id = ? AND player_id = ?");
+        betsOfRound = connection.prepareStatement(
+                "SELECT id, player_id, bet_number, bet_amount FROM bets WHERE game_round_id = ?");
+        playerHistory = connection.prepareStatement(
+                "SELECT id, game_round_id, bet_number, bet_amount, is_winner, winnings, placed_at FROM bets " +
+                "WHERE player_id = ? ORDER BY placed_at DESC, id DESC LIMIT 21");
+        activeRound = connection.prepareStatement(
+                "SELECT id, start_time FROM game_rounds WHERE table_id = 1 AND status = 'BETTING_OPEN' " +
+                "ORDER BY start_time DESC LIMIT 1");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long betOfPlayerInRound() throws SQLException {
+        int round = ThreadLocalRandom.current().nextInt(1, rounds + 1);
+        betOfPlayerInRound.setLong(1, round);
+        betOfPlayerInRound.setLong(2, ((long) (round - 1) * BETS_PER_ROUND) % PLAYERS + 1);
+        return consume(betOfPlayerInRound);
+    }
+
+    @Benchmark
+    public long betsOfRound() throws SQLException {
+        betsOfRound.setLong(1, ThreadLocalRandom.current().nextInt(1, rounds + 1));
+        return consume(betsOfRound);
+    }
+
+    @Benchmark
+    public long playerHistoryPage() throws SQLException {
+        playerHistory.setLong(1, ThreadLocalRandom.current().nextInt(1, PLAYERS + 1));
+        return consume(playerHistory);
+    }
+
+    @Benchmark
+    public long activeRound() throws SQLException {
+        return consume(activeRound);
+    }
+
+    private static long consume(PreparedStatement query) throws SQLException {
+        long sum = 0;
+        try (ResultSet rows = query.executeQuery()) {
+            while (rows.next()) {
+                sum += rows.getLong(1);
+            }
+        }
+        return sum;
+    }
+}
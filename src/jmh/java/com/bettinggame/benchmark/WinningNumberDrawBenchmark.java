@@ -0,0 +1,58 @@
+package com.bettinggame.benchmark;
+
+import com.bettinggame.rng.RandomNumberProvider;
+import com.bettinggame.rng.SecureRandomNumberProvider;
+import com.bettinggame.rng.SeededRandomNumberProvider;
+import com.bettinggame.rng.ThreadLocalRandomNumberProvider;
+import com.bettinggame.service.GameService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the winning-number draw for each {@link RandomNumberProvider}, alone and
+ * with several threads sharing the service the way concurrent rounds and simulations do.
+ * {@code shared-random} is the single {@link java.util.Random} the service used to hold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinningNumberDrawBenchmark {
+
+    @Param({"shared-random", "thread-local", "splittable", "secure", "seeded"})
+    private String provider;
+
+    private GameService gameService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameService = new GameService(null, null, null, createProvider(), null, null, null);
+    }
+
+    private RandomNumberProvider createProvider() {
+        return switch (provider) {
+            case "shared-random" -> new Random()::nextInt;
+            case "thread-local" -> new ThreadLocalRandomNumberProvider();
+            case "splittable" -> new ThreadLocalRandomNumberProvider("SplittableRandom");
+            case "secure" -> new SecureRandomNumberProvider(null, 4096);
+            case "seeded" -> new SeededRandomNumberProvider(42L);
+            default -> throw new IllegalArgumentException(provider);
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int drawSingleThread() {
+        return gameService.drawWinningNumber();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int drawContended() {
+        return gameService.drawWinningNumber();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bettinggame.audit;
+
+import com.bettinggame.dto.BetRequest;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Audit trail of bet decisions and draws, one {@code key=value} line per event on the
+ * {@value #LOGGER_NAME} logger. The name is outside {@code com.bettinggame} so tuning the
+ * application's log levels can't silence it; {@code logback-spring.xml} routes it to its own
+ * file through a dedicated async appender.
+ */
+public final class BetAuditLog {
+
+    public static final String LOGGER_NAME = "audit.bets";
+
+    private static final Logger AUDIT = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private BetAuditLog() {
+    }
+
+    public static void betAccepted(int tableId, Bet bet) {
+        if (AUDIT.isInfoEnabled()) {
+            AUDIT.info("event=bet_accepted table={} round={} player={} number={} amount={}",
+                    tableId, bet.getGameRound().getId(), bet.getPlayer().getNickname(),
+                    bet.getBetNumber(), bet.getBetAmount().toPlainString());
+        }
+    }
+
+    public static void betRejected(int tableId, BetRequest request, String reason) {
+        if (AUDIT.isInfoEnabled()) {
+            AUDIT.info("event=bet_rejected table={} player={} number={} amount={} reason={}",
+                    tableId, request.getNickname(), request.getBetNumber(),
+                    request.getBetAmount() != null ? request.getBetAmount().toPlainString() : null, reason);
+        }
+    }
+
+    public static void roundDrawn(GameRound round) {
+        if (AUDIT.isInfoEnabled()) {
+            AUDIT.info("event=round_drawn table={} round={} number={}",
+                    round.getTableId(), round.getId(), round.getWinningNumber());
+        }
+    }
+}
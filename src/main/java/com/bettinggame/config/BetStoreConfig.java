@@ -0,0 +1,37 @@
+package com.bettinggame.config;
+
+import com.bettinggame.journal.BetStore;
+import com.bettinggame.journal.JournalBetStore;
+import com.bettinggame.journal.JpaBetStore;
+import com.bettinggame.repository.BetRepository;
+import com.bettinggame.repository.JournalCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Selects how accepted bets are persisted with {@code app.bets.store}:
+ * {@code jpa} (default) or {@code journal}.
+ */
+@Configuration
+@EnableConfigurationProperties(BetStoreProperties.class)
+@Slf4j
+public class BetStoreConfig {
+
+    @Bean
+    public BetStore betStore(BetStoreProperties properties,
+                             BetRepository betRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             JournalCheckpointRepository checkpointRepository) {
+        log.info("Using '{}' bet store", properties.getStore());
+        return switch (properties.getStore()) {
+            case "jpa" -> new JpaBetStore(betRepository);
+            case "journal" -> new JournalBetStore(jdbcTemplate, transactionManager, checkpointRepository, properties.getJournal());
+            default -> throw new IllegalArgumentException("Unknown app.bets.store: " + properties.getStore());
+        };
+    }
+}
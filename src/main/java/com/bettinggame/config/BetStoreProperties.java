@@ -0,0 +1,39 @@
+package com.bettinggame.config;
+
+import com.bettinggame.journal.FsyncPolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bet persistence under {@code app.bets}: {@code store=jpa} (default) saves each bet in the
+ * request, {@code store=journal} appends it to a memory-mapped journal that is projected
+ * into the {@code bets} table in the background.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bets")
+public class BetStoreProperties {
+    
+    private String store = "jpa";
+    
+    private Journal journal = new Journal();
+    
+    @Data
+    public static class Journal {
+        
+        private String dir = "data/bets";
+        
+        // Must stay the same for the lifetime of a journal directory
+        private int segmentBytes = 64 * 1024 * 1024;
+        
+        private FsyncPolicy fsync = FsyncPolicy.GROUP;
+        
+        private long fsyncIntervalMillis = 2;
+        
+        // A GROUP append not forced within this is refused instead of waiting on a stuck disk
+        private long durableTimeoutMillis = 1_000;
+        
+        private long projectionIntervalMillis = 100;
+        
+        private int projectionBatchSize = 1000;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bettinggame.config;
+
+import com.bettinggame.util.Cents;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * STOMP message converter for {@code application/cbor} bodies, next to the default JSON one.
+ * <p>
+ * Money is written as whole cents ({@code 12.50} becomes {@code 1250}), rounded by {@link Cents}
+ * like every other amount, and timestamps as epoch millis, so a winner entry carries two small
+ * integers instead of a decimal string and an ISO date. Inbound frames are read the same way.
+ * The converter only applies when a message names its content type, so anything sent without
+ * one stays JSON.
+ */
+@Component
+public class CborMessageConverter extends MappingJackson2MessageConverter {
+
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    public CborMessageConverter() {
+        super(APPLICATION_CBOR);
+        setObjectMapper(Jackson2ObjectMapperBuilder.cbor()
+                .modulesToInstall(new BlackbirdModule())
+                .serializerByType(BigDecimal.class, new CentsSerializer())
+                .deserializerByType(BigDecimal.class, new CentsDeserializer())
+                .serializerByType(LocalDateTime.class, new EpochMillisSerializer())
+                .deserializerByType(LocalDateTime.class, new EpochMillisDeserializer())
+                .build());
+        setStrictContentTypeMatch(true);
+    }
+
+    private static class CentsSerializer extends JsonSerializer<BigDecimal> {
+        @Override
+        public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(Cents.of(value));
+        }
+    }
+
+    private static class CentsDeserializer extends JsonDeserializer<BigDecimal> {
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return Cents.toAmount(p.getLongValue());
+        }
+    }
+
+    // LocalDateTime values are taken from the server clock, so they are read back in its zone
+    private static class EpochMillisSerializer extends JsonSerializer<LocalDateTime> {
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    private static class EpochMillisDeserializer extends JsonDeserializer<LocalDateTime> {
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getLongValue()), ZoneId.systemDefault());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bettinggame.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for a STOMP client channel that reports how many tasks are waiting, how many
+ * are running and how long they wait, whatever executor runs them (pool or virtual threads).
+ */
+class ChannelTaskExecutor implements TaskExecutor, DisposableBean {
+
+    private final Executor delegate;
+    private final Runnable shutdown;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer queueWait;
+
+    ChannelTaskExecutor(String channel, Executor delegate, Runnable shutdown, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.shutdown = shutdown;
+        Gauge.builder("websocket.channel.queued", queued, AtomicInteger::get)
+                .description("Tasks waiting for a channel thread")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("websocket.channel.active", active, AtomicInteger::get)
+                .description("Tasks running on channel threads")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("websocket.channel.queue.wait")
+                .description("Time a task waits before a channel thread picks it up")
+                .tag("channel", channel)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw new TaskRejectedException("Channel executor rejected task", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        shutdown.run();
+    }
+}
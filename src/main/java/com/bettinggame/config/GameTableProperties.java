@@ -0,0 +1,35 @@
+package com.bettinggame.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Game tables under {@code app.tables}. Each table runs its own round lifecycle; tables are
+ * spread over {@code partitions} scheduler threads, and a table is always driven by the same
+ * thread so its round state needs no locking.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.tables")
+public class GameTableProperties {
+    
+    private int count = 1;
+    
+    // Scheduler threads driving the tables; 0 uses one per core, capped at the table count
+    private int partitions = 0;
+    
+    private long bettingDurationMillis = 10_000;
+    
+    // Pause between the results of one round and the opening of the next
+    private long intermissionMillis = 1000;
+    
+    // How often a changed live exposure is pushed to subscribers
+    private long exposureIntervalMillis = 1000;
+    
+    // Resolution of the round timer; phase changes fire at most about one tick late
+    private long timerTickMillis = 1;
+    
+    public int effectivePartitions() {
+        int requested = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(requested, count));
+    }
+}
@@ -0,0 +1,20 @@
+package com.bettinggame.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Blackbird with the ObjectMapper Spring Boot builds for both HTTP and the STOMP broker.
+ * It replaces the reflective getter calls of each bean serializer with accessors generated once
+ * through {@code LambdaMetafactory}, so the response DTOs serialize without per-call reflection.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
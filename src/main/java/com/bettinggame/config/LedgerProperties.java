@@ -0,0 +1,21 @@
+package com.bettinggame.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Balance ledger under {@code app.ledger}. Balances live in memory and are written to
+ * {@code players} every {@code flush-interval-millis}; the journal in {@code journal-dir}
+ * holds the changes made since the last flush so they survive a crash.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.ledger")
+public class LedgerProperties {
+    
+    private String journalDir = "data/ledger";
+    
+    private long flushIntervalMillis = 500;
+    
+    // Force every journal record to disk; without it a process crash is covered but a power loss is not
+    private boolean fsync = false;
+}
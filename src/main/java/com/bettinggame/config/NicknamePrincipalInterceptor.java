@@ -0,0 +1,36 @@
+package com.bettinggame.config;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+
+/**
+ * Names a STOMP session after the {@code nickname} header of its CONNECT frame, so
+ * {@code /user/queue/...} destinations reach that player's sessions. There is no
+ * authentication in this game; the header is trusted like the nickname in a bet request.
+ */
+public class NicknamePrincipalInterceptor implements ChannelInterceptor {
+
+    static final String NICKNAME_HEADER = "nickname";
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand()) && accessor.getUser() == null) {
+            String nickname = accessor.getFirstNativeHeader(NICKNAME_HEADER);
+            if (StringUtils.hasText(nickname)) {
+                String name = nickname.trim();
+                Principal principal = () -> name;
+                accessor.setUser(principal);
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bettinggame.config;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiates the payload format of topic subscriptions. A SUBSCRIBE to {@code /topic/...} with
+ * an {@code accept: application/cbor} header, on a session connected through the native
+ * WebSocket endpoint, is moved to the matching {@code /topic/cbor/...} destination; anything
+ * else keeps the JSON topic. SockJS sessions always get JSON because their frames are text.
+ * <p>
+ * Binary subscriptions are counted per destination so the broadcaster only encodes CBOR while
+ * somebody is listening for it.
+ */
+@Component
+public class PayloadFormatInterceptor implements ChannelInterceptor {
+
+    public static final String ACCEPT_HEADER = "accept";
+    public static final String NATIVE_SESSION_ATTRIBUTE = "nativeWebSocket";
+
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final String CBOR_TOPIC_PREFIX = "/topic/cbor/";
+
+    // session id -> subscription id -> binary destination
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> subscriberCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Where the CBOR copy of a topic message goes, or {@code null} for destinations that are not
+     * broadcast topics.
+     */
+    public static String binaryDestination(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX) || destination.startsWith(CBOR_TOPIC_PREFIX)) {
+            return null;
+        }
+        return CBOR_TOPIC_PREFIX + destination.substring(TOPIC_PREFIX.length());
+    }
+
+    public boolean hasSubscribers(String binaryDestination) {
+        return subscriberCounts.containsKey(binaryDestination);
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null || accessor.getSessionId() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case SUBSCRIBE -> subscribe(accessor);
+            case UNSUBSCRIBE -> {
+                Map<String, String> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+                if (subscriptions != null && accessor.getSubscriptionId() != null) {
+                    release(subscriptions.remove(accessor.getSubscriptionId()));
+                }
+            }
+            case DISCONNECT -> {
+                Map<String, String> subscriptions = sessionSubscriptions.remove(accessor.getSessionId());
+                if (subscriptions != null) {
+                    subscriptions.values().forEach(this::release);
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private void subscribe(StompHeaderAccessor accessor) {
+        String binaryDestination = binaryDestination(accessor.getDestination());
+        if (binaryDestination == null || accessor.getSubscriptionId() == null
+                || !acceptsCbor(accessor.getFirstNativeHeader(ACCEPT_HEADER)) || !isNativeSession(accessor)) {
+            return;
+        }
+        accessor.setDestination(binaryDestination);
+        sessionSubscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), binaryDestination);
+        subscriberCounts.merge(binaryDestination, 1, Integer::sum);
+    }
+
+    private void release(String binaryDestination) {
+        if (binaryDestination != null) {
+            subscriberCounts.computeIfPresent(binaryDestination, (destination, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private boolean acceptsCbor(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MimeTypeUtils.parseMimeTypes(accept).stream()
+                    .anyMatch(CborMessageConverter.APPLICATION_CBOR::equalsTypeAndSubtype);
+        } catch (InvalidMimeTypeException e) {
+            return false;
+        }
+    }
+
+    private boolean isNativeSession(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        return attributes != null && Boolean.TRUE.equals(attributes.get(NATIVE_SESSION_ATTRIBUTE));
+    }
+}
@@ -0,0 +1,34 @@
+package com.bettinggame.config;
+
+import com.bettinggame.model.Player;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Nickname-to-player cache used by {@code PlayerService}, bounded by
+ * {@code app.players.cache.maximum-size} and {@code app.players.cache.expire-after-write-seconds}.
+ * Hit, miss and eviction counts are published as the {@code cache.*} metrics with {@code cache=players}.
+ */
+@Configuration
+public class PlayerCacheConfig {
+
+    @Bean
+    public Cache<String, Player> playerCache(
+            @Value("${app.players.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.players.cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds,
+            MeterRegistry meterRegistry) {
+        Cache<String, Player> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "players");
+    }
+}
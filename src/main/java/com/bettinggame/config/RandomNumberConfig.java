@@ -0,0 +1,35 @@
+package com.bettinggame.config;
+
+import com.bettinggame.rng.RandomNumberProvider;
+import com.bettinggame.rng.SecureRandomNumberProvider;
+import com.bettinggame.rng.SeededRandomNumberProvider;
+import com.bettinggame.rng.ThreadLocalRandomNumberProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the generator used for winning-number draws with {@code app.rng.mode}:
+ * {@code thread-local} (default), {@code secure} or {@code seeded}.
+ */
+@Configuration
+@Slf4j
+public class RandomNumberConfig {
+
+    @Bean
+    public RandomNumberProvider randomNumberProvider(
+            @Value("${app.rng.mode:thread-local}") String mode,
+            @Value("${app.rng.algorithm:" + ThreadLocalRandomNumberProvider.DEFAULT_ALGORITHM + "}") String algorithm,
+            @Value("${app.rng.secure-algorithm:}") String secureAlgorithm,
+            @Value("${app.rng.buffer-size:4096}") int bufferSize,
+            @Value("${app.rng.seed:0}") long seed) {
+        log.info("Using '{}' random number provider", mode);
+        return switch (mode) {
+            case "thread-local" -> new ThreadLocalRandomNumberProvider(algorithm);
+            case "secure" -> new SecureRandomNumberProvider(secureAlgorithm, bufferSize);
+            case "seeded" -> new SeededRandomNumberProvider(seed);
+            default -> throw new IllegalArgumentException("Unknown app.rng.mode: " + mode);
+        };
+    }
+}
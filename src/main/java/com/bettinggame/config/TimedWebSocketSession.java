@@ -0,0 +1,32 @@
+package com.bettinggame.config;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every frame written to the client, so slow consumers show up as send latency.
+ */
+class TimedWebSocketSession extends WebSocketSessionDecorator {
+
+    private final Timer sendTimer;
+
+    TimedWebSocketSession(WebSocketSession session, Timer sendTimer) {
+        super(session);
+        this.sendTimer = sendTimer;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.sendMessage(message);
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.bettinggame.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Virtual-thread request handling ({@code spring.threads.virtual.enabled=true}, Java 21+).
+ * Spring Boot then runs Tomcat requests on virtual threads, so a bet burst no longer queues
+ * behind the platform thread pool, but nothing bounds how many requests reach JDBC at once.
+ * This caps concurrent connection holders at {@code app.jdbc.max-concurrency} (default: the
+ * Hikari pool size) and publishes the limiter as the {@code jdbc.limiter.*} gauges.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    VirtualThreadConfig() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled needs Java 21+; requests stay on the Tomcat thread pool");
+        }
+    }
+
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getProperty("app.jdbc.max-concurrency", Integer.class, 0);
+                if (maxConcurrency <= 0) {
+                    maxConcurrency = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                long acquireTimeoutMillis = environment.getProperty("app.jdbc.acquire-timeout-millis", Long.class, 2000L);
+                log.info("Limiting data source {} to {} concurrent connection(s)", beanName, maxConcurrency);
+                return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeoutMillis);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder jdbcLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            ConcurrencyLimitingDataSource limiter;
+            try {
+                limiter = dataSource.unwrap(ConcurrencyLimitingDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            bind(registry, "jdbc.limiter.active", "Callers holding a connection", limiter, ConcurrencyLimitingDataSource::getActive);
+            bind(registry, "jdbc.limiter.waiting", "Callers waiting for a connection permit", limiter, ConcurrencyLimitingDataSource::getWaiting);
+            bind(registry, "jdbc.limiter.max", "Connection permits", limiter, ConcurrencyLimitingDataSource::getMaxConcurrency);
+        };
+    }
+
+    private static void bind(MeterRegistry registry, String name, String description, ConcurrencyLimitingDataSource limiter,
+                             ToIntFunction<ConcurrencyLimitingDataSource> value) {
+        Gauge.builder(name, limiter, source -> value.applyAsInt(source))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -1,20 +1,52 @@
 package com.bettinggame.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@EnableConfigurationProperties(WebSocketProperties.class)
+@RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketProperties properties;
+    private final PayloadFormatInterceptor payloadFormatInterceptor;
+    private final CborMessageConverter cborMessageConverter;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private MeterRegistry meterRegistry;
+
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
     }
 
     @Override
@@ -22,5 +54,95 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        // Plain WebSocket for clients that can take binary frames, e.g. CBOR subscriptions
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(new NativeSessionMarker());
+    }
+
+    @Override
+    public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
+        registration.executor(channelExecutor("inbound", properties.getInbound()))
+                .interceptors(new NicknamePrincipalInterceptor(), payloadFormatInterceptor);
+    }
+
+    @Override
+    public boolean configureMessageConverters(@NonNull List<MessageConverter> messageConverters) {
+        messageConverters.add(cborMessageConverter);
+        return true;
+    }
+
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        registration.executor(channelExecutor("outbound", properties.getOutbound()));
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        Timer sendTimer = Timer.builder("websocket.session.send")
+                .description("Time to write a frame to a client session")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry());
+
+        registration.setSendTimeLimit(properties.getSendTimeLimitMillis())
+                .setSendBufferSizeLimit(properties.getSendBufferSizeLimitBytes())
+                .setMessageSizeLimit(properties.getMessageSizeLimitBytes())
+                .addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+                    @Override
+                    public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
+                        super.afterConnectionEstablished(new TimedWebSocketSession(session, sendTimer));
+                    }
+                });
+    }
+
+    private ChannelTaskExecutor channelExecutor(String channel, WebSocketProperties.ChannelPool pool) {
+        if (properties.isVirtualThreads()) {
+            ExecutorService virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor != null) {
+                return new ChannelTaskExecutor(channel, virtualExecutor, virtualExecutor::shutdown, meterRegistry());
+            }
+            log.warn("Virtual threads need Java 21+; using a thread pool for the {} channel", channel);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ws-" + channel + "-");
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(Math.max(pool.getCorePoolSize(), pool.getMaxPoolSize()));
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds(pool.getKeepAliveSeconds());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.initialize();
+        return new ChannelTaskExecutor(channel, executor, executor::shutdown, meterRegistry());
+    }
+
+    // Looked up reflectively so the build still targets Java 17
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private MeterRegistry meterRegistry() {
+        if (meterRegistry == null) {
+            meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        }
+        return meterRegistry;
+    }
+
+    // Lets PayloadFormatInterceptor tell native WebSocket sessions from SockJS ones
+    private static class NativeSessionMarker implements HandshakeInterceptor {
+        @Override
+        public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                       @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+            attributes.put(PayloadFormatInterceptor.NATIVE_SESSION_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                   @NonNull WebSocketHandler wsHandler, Exception exception) {
+        }
     }
 }
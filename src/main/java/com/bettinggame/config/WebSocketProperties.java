@@ -0,0 +1,37 @@
+package com.bettinggame.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * STOMP broker tuning under {@code app.websocket}. Defaults are sized for production
+ * bursts: bounded channel queues so overload shows up as queue depth instead of memory
+ * growth, and a short send time limit so one slow consumer can't hold up broadcasts.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketProperties {
+    
+    private static final int CPUS = Runtime.getRuntime().availableProcessors();
+    
+    // Run channel tasks on virtual threads instead of the pools below (needs Java 21+)
+    private boolean virtualThreads = false;
+    
+    private ChannelPool inbound = new ChannelPool();
+    
+    private ChannelPool outbound = new ChannelPool();
+    
+    private int sendTimeLimitMillis = 5_000;
+    
+    private int sendBufferSizeLimitBytes = 256 * 1024;
+    
+    private int messageSizeLimitBytes = 64 * 1024;
+    
+    @Data
+    public static class ChannelPool {
+        private int corePoolSize = Math.max(8, CPUS * 2);
+        private int maxPoolSize = Math.max(16, CPUS * 4);
+        private int queueCapacity = 10_000;
+        private int keepAliveSeconds = 60;
+    }
+}
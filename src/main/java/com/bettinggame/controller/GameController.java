@@ -1,22 +1,37 @@
 package com.bettinggame.controller;
 
+import com.bettinggame.dto.BetAck;
+import com.bettinggame.dto.BetHistoryPage;
 import com.bettinggame.dto.BetRequest;
 import com.bettinggame.dto.BetResponse;
 import com.bettinggame.dto.GameState;
+import com.bettinggame.dto.LeaderboardEntry;
+import com.bettinggame.dto.LeaderboardPage;
 import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.dto.PlayerSummary;
+import com.bettinggame.dto.RoundExposure;
 import com.bettinggame.model.Bet;
 import com.bettinggame.model.GameRound;
 import com.bettinggame.model.Player;
+import com.bettinggame.service.BetHistoryService;
 import com.bettinggame.service.GameSchedulerService;
 import com.bettinggame.service.GameService;
+import com.bettinggame.service.LeaderboardService;
 import com.bettinggame.service.PlayerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -30,53 +45,89 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class GameController {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    public static final String BET_ACK_QUEUE = "/queue/bet-ack";
+    public static final String CORRELATION_ID_HEADER = "correlation-id";
+    
     private final PlayerService playerService;
     private final GameService gameService;
     private final GameSchedulerService gameSchedulerService;
+    private final LeaderboardService leaderboardService;
+    private final BetHistoryService betHistoryService;
     
     @PostMapping("/players/register")
-    public ResponseEntity<Player> registerPlayer(@Valid @RequestBody PlayerRegistrationRequest request) {
+    public ResponseEntity<PlayerSummary> registerPlayer(@Valid @RequestBody PlayerRegistrationRequest request) {
         try {
             Player player = playerService.registerPlayer(request);
-            return ResponseEntity.ok(player);
+            return ResponseEntity.ok(toPlayerSummary(player));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @GetMapping("/players/{nickname}")
-    public ResponseEntity<Player> getPlayer(@PathVariable String nickname) {
-        Optional<Player> player = playerService.findByNickname(nickname);
-        return player.map(ResponseEntity::ok)
+    public ResponseEntity<PlayerSummary> getPlayer(@PathVariable String nickname) {
+        return playerService.findByNickname(nickname)
+                .map(player -> ResponseEntity.ok(toPlayerSummary(player)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/players/{nickname}/bets")
+    public ResponseEntity<?> getBetHistory(@PathVariable String nickname,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<Player> player = playerService.findByNickname(nickname);
+        if (player.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            BetHistoryPage page = betHistoryService.getHistory(player.get(), cursor, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Full history for support tools; streamed row by row, so its size doesn't matter
+    @GetMapping("/players/{nickname}/bets/export")
+    public ResponseEntity<StreamingResponseBody> exportBetHistory(@PathVariable String nickname) {
+        Optional<Player> player = playerService.findByNickname(nickname);
+        if (player.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> betHistoryService.exportHistory(player.get(), out);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nickname + "-bets.ndjson\"")
+                .body(body);
+    }
+    
     @GetMapping("/players/winners")
-    public ResponseEntity<List<Player>> getTopWinners() {
-        List<Player> winners = playerService.getTopWinners();
-        return ResponseEntity.ok(winners);
+    public ResponseEntity<List<LeaderboardEntry>> getTopWinners(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.top(Math.min(limit, MAX_PAGE_SIZE)));
+    }
+    
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardPage> getLeaderboard(@RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leaderboardService.page(page, Math.min(size, MAX_PAGE_SIZE)));
     }
     
     @PostMapping("/bets")
     public ResponseEntity<?> placeBet(@Valid @RequestBody BetRequest betRequest) {
         try {
             Bet bet = gameService.placeBet(betRequest);
-            
-            // Convert to DTO to avoid circular reference
-            BetResponse response = BetResponse.builder()
-                    .id(bet.getId())
-                    .playerNickname(bet.getPlayer().getNickname())
-                    .betNumber(bet.getBetNumber())
-                    .betAmount(bet.getBetAmount())
-                    .gameRoundId(bet.getGameRound().getId())
-                    .createdAt(bet.getPlacedAt())
-                    .isWinner(bet.getIsWinner())
-                    .winAmount(bet.getWinnings() != null ? bet.getWinnings() : BigDecimal.ZERO)
-                    .build();
-                    
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(toBetResponse(bet));
         } catch (IllegalArgumentException | IllegalStateException e) {
-            log.error("Error placing bet: ", e);
+            log.debug("Bet rejected: {}", e.getMessage());
             Map<String, String> errorResponse = Map.of("error", e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
         }
@@ -97,20 +148,126 @@ public class GameController {
         GameRound round = currentRound.get();
         long timeRemaining = gameSchedulerService.getRemainingTime();
         
+        boolean bettingOpen = round.getStatus() == GameRound.GameRoundStatus.BETTING_OPEN;
+        
         GameState gameState = GameState.builder()
                 .currentRoundId(round.getId())
                 .timeRemaining(timeRemaining)
-                .bettingOpen(round.getStatus() == GameRound.GameRoundStatus.BETTING_OPEN)
+                .bettingOpen(bettingOpen)
                 .phase(round.getStatus().name())
+                .bettingClosesAt(bettingOpen ? gameSchedulerService.getBettingClosesAt() : null)
+                .serverTime(System.currentTimeMillis())
                 .build();
         
         return ResponseEntity.ok(gameState);
     }
     
+    @GetMapping("/game/exposure")
+    public ResponseEntity<RoundExposure> getExposure() {
+        return gameService.getExposure()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/tables")
+    public ResponseEntity<List<GameState>> getTables() {
+        List<GameState> states = gameSchedulerService.getTables().stream()
+                .map(table -> gameSchedulerService.getTableState(table.getId()).orElseThrow())
+                .toList();
+        return ResponseEntity.ok(states);
+    }
+    
+    @GetMapping("/tables/{tableId}/state")
+    public ResponseEntity<GameState> getTableState(@PathVariable int tableId) {
+        return gameSchedulerService.getTableState(tableId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/tables/{tableId}/exposure")
+    public ResponseEntity<RoundExposure> getTableExposure(@PathVariable int tableId) {
+        return gameService.getExposure(tableId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/tables/{tableId}/bets")
+    public ResponseEntity<?> placeTableBet(@PathVariable int tableId, @Valid @RequestBody BetRequest betRequest) {
+        if (gameSchedulerService.getTable(tableId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            Bet bet = gameService.placeBet(tableId, betRequest);
+            return ResponseEntity.ok(toBetResponse(bet));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.debug("Bet on table {} rejected: {}", tableId, e.getMessage());
+            Map<String, String> errorResponse = Map.of("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
+    private PlayerSummary toPlayerSummary(Player player) {
+        return PlayerSummary.builder()
+                .id(player.getId())
+                .nickname(player.getNickname())
+                .balance(player.getBalance())
+                .totalWinnings(player.getTotalWinnings())
+                .createdAt(player.getCreatedAt())
+                .build();
+    }
+    
+    // Convert to DTO to avoid circular reference
+    private BetResponse toBetResponse(Bet bet) {
+        return BetResponse.builder()
+                .id(bet.getId())
+                .playerNickname(bet.getPlayer().getNickname())
+                .betNumber(bet.getBetNumber())
+                .betAmount(bet.getBetAmount())
+                .gameRoundId(bet.getGameRound().getId())
+                .createdAt(bet.getPlacedAt())
+                .isWinner(bet.getIsWinner())
+                .winAmount(bet.getWinnings() != null ? bet.getWinnings() : BigDecimal.ZERO)
+                .build();
+    }
+    
     // WebSocket message handlers
+    
+    // The outcome goes back to the sending session only; other players see bets through /topic/exposure
     @MessageMapping("/place-bet")
-    @SendTo("/topic/bet-placed")
-    public Bet handleBetPlacement(@Valid BetRequest betRequest) {
-        return gameService.placeBet(betRequest);
+    @SendToUser(destinations = BET_ACK_QUEUE, broadcast = false)
+    public BetAck handleBetPlacement(@Valid @Payload BetRequest betRequest,
+                                     @Header(name = CORRELATION_ID_HEADER, required = false) String correlationId) {
+        try {
+            Bet bet = gameService.placeBet(betRequest);
+            return BetAck.builder()
+                    .correlationId(correlationId)
+                    .accepted(true)
+                    .roundId(bet.getGameRound().getId())
+                    .betNumber(bet.getBetNumber())
+                    .betAmount(bet.getBetAmount())
+                    .balance(bet.getPlayer().getBalance())
+                    .build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.debug("WebSocket bet of player {} rejected: {}", betRequest.getNickname(), e.getMessage());
+            return rejectedBet(correlationId, e.getMessage());
+        }
+    }
+    
+    @MessageExceptionHandler(MethodArgumentNotValidException.class)
+    @SendToUser(destinations = BET_ACK_QUEUE, broadcast = false)
+    public BetAck handleInvalidBet(MethodArgumentNotValidException e,
+                                   @Header(name = CORRELATION_ID_HEADER, required = false) String correlationId) {
+        String error = e.getBindingResult() != null && e.getBindingResult().hasErrors()
+                ? e.getBindingResult().getAllErrors().get(0).getDefaultMessage()
+                : "Invalid bet";
+        return rejectedBet(correlationId, error);
+    }
+    
+    private BetAck rejectedBet(String correlationId, String error) {
+        return BetAck.builder()
+                .correlationId(correlationId)
+                .accepted(false)
+                .error(error)
+                .build();
     }
 }
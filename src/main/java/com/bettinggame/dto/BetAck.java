@@ -0,0 +1,26 @@
+package com.bettinggame.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Reply to a bet placed over STOMP, sent only to the session that placed it
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BetAck {
+
+    private String correlationId; // echoed from the correlation-id header of the SEND frame
+    private boolean accepted;
+    private Long roundId;
+    private Integer betNumber;
+    private BigDecimal betAmount;
+    private BigDecimal balance; // right after the stake was debited
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetHistoryItem {
+    
+    private Long id;
+    private Long gameRoundId;
+    private Integer betNumber;
+    private BigDecimal betAmount;
+    private Boolean isWinner;
+    private BigDecimal winnings;
+    private LocalDateTime placedAt;
+}
@@ -0,0 +1,18 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetHistoryPage {
+    
+    private List<BetHistoryItem> bets;
+    private String nextCursor; // null on the last page
+}
@@ -1,5 +1,6 @@
 package com.bettinggame.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,10 +10,14 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GameState {
     
+    private Integer tableId;
     private Long currentRoundId;
     private Long timeRemaining; // in seconds
     private boolean bettingOpen;
     private String phase; // "BETTING_OPEN", "BETTING_CLOSED", "ROUND_COMPLETE"
+    private Long bettingClosesAt; // epoch millis; clients count down against this instead of per-second updates
+    private Long serverTime; // epoch millis when the state was produced, to correct for client clock skew
 }
@@ -0,0 +1,19 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    
+    private int rank;
+    private String nickname;
+    private BigDecimal totalWinnings;
+}
@@ -0,0 +1,20 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPage {
+    
+    private int page;
+    private int size;
+    private int totalEntries; // capped at the leaderboard capacity
+    private List<LeaderboardEntry> entries;
+}
@@ -0,0 +1,20 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// The columns the leaderboard loads at startup, selected without building Player entities
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerStanding {
+    
+    private Long id;
+    private String nickname;
+    private BigDecimal totalWinnings;
+}
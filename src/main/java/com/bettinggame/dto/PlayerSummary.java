@@ -0,0 +1,23 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// What the player endpoints return instead of the Player entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerSummary {
+    
+    private Long id;
+    private String nickname;
+    private BigDecimal balance;
+    private BigDecimal totalWinnings;
+    private LocalDateTime createdAt;
+}
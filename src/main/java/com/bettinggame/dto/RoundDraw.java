@@ -0,0 +1,21 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Sent as soon as the draw is committed, before any payout
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundDraw {
+    
+    private Integer tableId;
+    private Long roundId;
+    private Integer winningNumber;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,20 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundExposure {
+    
+    private Long roundId;
+    private int betCount;
+    private long totalStakeCents;
+    private long[] stakeCents; // index 0 is number 1
+    private long[] liabilityCents; // payout owed per number if it is drawn
+    private long maxLiabilityCents;
+}
@@ -0,0 +1,25 @@
+package com.bettinggame.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Outcome of one player's bet, sent to that player once the bet has been paid out
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementNotice {
+    
+    private Integer tableId;
+    private Long roundId;
+    private Integer winningNumber;
+    private Integer betNumber;
+    private BigDecimal betAmount;
+    private boolean winner;
+    private BigDecimal winnings;
+    private BigDecimal balance; // only for winners, right after the credit
+}
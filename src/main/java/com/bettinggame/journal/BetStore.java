@@ -0,0 +1,18 @@
+package com.bettinggame.journal;
+
+import com.bettinggame.model.Bet;
+
+/**
+ * Where accepted bets are written. Reporting and settlement always read the {@code bets}
+ * table, so they call {@link #awaitPersisted()} first.
+ */
+public interface BetStore {
+    
+    Bet store(Bet bet);
+    
+    /**
+     * Blocks until every bet stored so far is visible in the {@code bets} table.
+     */
+    default void awaitPersisted() {
+    }
+}
@@ -0,0 +1,16 @@
+package com.bettinggame.journal;
+
+/**
+ * When appended bet records are forced to disk before the bet is acknowledged.
+ */
+public enum FsyncPolicy {
+    
+    // Force every record before acknowledging it
+    ALWAYS,
+    
+    // Force on a short interval and acknowledge once the interval's force covers the record
+    GROUP,
+    
+    // Leave flushing to the OS: survives a process crash but not a power loss
+    NONE
+}
@@ -0,0 +1,229 @@
+package com.bettinggame.journal;
+
+import com.bettinggame.config.BetStoreProperties;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.JournalCheckpoint;
+import com.bettinggame.repository.JournalCheckpointRepository;
+import com.bettinggame.util.Cents;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acknowledges a bet once its record is in the {@link MappedBetJournal} (and durable,
+ * per the fsync policy), and projects the journal into the {@code bets} table in the
+ * background. The projected position is checkpointed in the same transaction as the
+ * inserted rows, so after a restart projection resumes exactly where it stopped. That
+ * transaction is always a new one, even when {@link #awaitPersisted()} is called inside a
+ * caller's transaction: segments are deleted once it commits, so a caller rolling back
+ * must not take the projected rows with it.
+ * <p>
+ * Bets returned by {@link #store(Bet)} have no id yet; it is assigned by the projection.
+ * A batch the schema rejects is projected again row by row, and a row that still violates a
+ * constraint is logged at error level and skipped, so one bad record cannot stall projection.
+ */
+@Slf4j
+public class JournalBetStore implements BetStore, SmartLifecycle {
+
+    static final String CHECKPOINT_NAME = "bet-journal";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bets (player_id, game_round_id, bet_number, bet_amount, is_winner, placed_at) " +
+            "VALUES (?, ?, ?, ?, FALSE, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final BetStoreProperties.Journal properties;
+
+    private volatile MappedBetJournal journal;
+    private ScheduledExecutorService background;
+    private long projectedSequence;
+    private volatile boolean running;
+
+    public JournalBetStore(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           JournalCheckpointRepository checkpointRepository,
+                           BetStoreProperties.Journal properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        long checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .map(JournalCheckpoint::getPosition)
+                .orElse(0L);
+        journal = new MappedBetJournal(Path.of(properties.getDir()), properties.getSegmentBytes(),
+                properties.getFsync(), checkpoint);
+        projectedSequence = checkpoint;
+        if (journal.nextSequence() > checkpoint) {
+            log.warn("Recovered {} unprojected bet(s) from the bet journal", journal.nextSequence() - checkpoint);
+        }
+
+        background = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "bet-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.getFsync() == FsyncPolicy.GROUP) {
+            background.scheduleAtFixedRate(this::forceQuietly,
+                    properties.getFsyncIntervalMillis(), properties.getFsyncIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+        background.scheduleWithFixedDelay(this::projectQuietly,
+                0, properties.getProjectionIntervalMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        background.shutdown();
+        try {
+            background.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        projectQuietly();
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the web server and round scheduler that store bets
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public Bet store(Bet bet) {
+        MappedBetJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Bet journal is not running");
+        }
+        long sequence = current.append(
+                bet.getPlayer().getId(),
+                bet.getGameRound().getId(),
+                bet.getBetNumber(),
+                Cents.of(bet.getBetAmount()),
+                bet.getPlacedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (properties.getFsync() == FsyncPolicy.GROUP) {
+            try {
+                current.awaitDurable(sequence, properties.getDurableTimeoutMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the bet journal", e);
+            }
+        }
+        return bet;
+    }
+
+    @Override
+    public void awaitPersisted() {
+        project();
+    }
+
+    /**
+     * Inserts every journaled bet not yet in the {@code bets} table. Returns the number of
+     * bets projected.
+     */
+    public synchronized int project() {
+        // Records not yet forced may still be voided by a timed-out append
+        long end = journal.durableSequence();
+        int projected = 0;
+        while (projectedSequence < end) {
+            long from = projectedSequence;
+            long to = Math.min(end, from + properties.getProjectionBatchSize());
+            List<Long> sequences = new ArrayList<>((int) (to - from));
+            List<Object[]> batch = new ArrayList<>((int) (to - from));
+            journal.read(from, to, (sequence, playerId, roundId, number, amountCents, placedAtMillis) -> {
+                sequences.add(sequence);
+                batch.add(new Object[]{playerId, roundId, number, Cents.toAmount(amountCents),
+                        Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(placedAtMillis), ZoneId.systemDefault()))});
+            });
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch, to));
+                projected += batch.size();
+            } catch (DataIntegrityViolationException e) {
+                // Retrying the batch would fail on the same row forever and stall settlement
+                projected += projectOneByOne(sequences, batch);
+            }
+            projectedSequence = to;
+        }
+        journal.deleteBefore(projectedSequence);
+        return projected;
+    }
+
+    // Each row commits with the checkpoint past it; a row the schema rejects is logged and skipped
+    private int projectOneByOne(List<Long> sequences, List<Object[]> batch) {
+        int projected = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            long next = sequences.get(i) + 1;
+            Object[] row = batch.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.<Object[]>of(row), next));
+                projected++;
+            } catch (DataIntegrityViolationException e) {
+                log.error("Skipping journaled bet {} (player {}, round {}, number {}, amount {}, placed {}) rejected by the bets table: {}",
+                        sequences.get(i), row[0], row[1], row[2], row[3], row[4], e.getMostSpecificCause().getMessage());
+                transactionTemplate.executeWithoutResult(status -> saveCheckpoint(next));
+            }
+            projectedSequence = next;
+        }
+        return projected;
+    }
+
+    private void insert(List<Object[]> rows, long checkpoint) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        saveCheckpoint(checkpoint);
+    }
+
+    private void saveCheckpoint(long position) {
+        checkpointRepository.save(JournalCheckpoint.builder()
+                .name(CHECKPOINT_NAME)
+                .position(position)
+                .build());
+    }
+
+    // An exception would cancel the periodic force, leaving every GROUP append to time out
+    private void forceQuietly() {
+        try {
+            journal.force();
+        } catch (Exception e) {
+            log.error("Failed to force the bet journal to disk: ", e);
+        }
+    }
+
+    private void projectQuietly() {
+        try {
+            int projected = project();
+            if (projected > 0) {
+                log.debug("Projected {} bet(s) into the bets table", projected);
+            }
+        } catch (Exception e) {
+            log.error("Failed to project the bet journal: ", e);
+        }
+    }
+}
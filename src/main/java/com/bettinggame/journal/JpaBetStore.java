@@ -0,0 +1,21 @@
+package com.bettinggame.journal;
+
+import com.bettinggame.model.Bet;
+import com.bettinggame.repository.BetRepository;
+
+/**
+ * Saves each bet straight into the {@code bets} table in the caller's transaction.
+ */
+public class JpaBetStore implements BetStore {
+    
+    private final BetRepository betRepository;
+    
+    public JpaBetStore(BetRepository betRepository) {
+        this.betRepository = betRepository;
+    }
+    
+    @Override
+    public Bet store(Bet bet) {
+        return betRepository.save(bet);
+    }
+}
@@ -0,0 +1,313 @@
+package com.bettinggame.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only bet journal in fixed-size memory-mapped segment files. Records are 44 bytes
+ * (magic, player id, round id, number, amount in cents, placed-at epoch millis, CRC32) and
+ * are addressed by a global sequence number, so record {@code n} lives in segment
+ * {@code n / recordsPerSegment}. A record is visible to readers once {@link #nextSequence()}
+ * has moved past it.
+ * <p>
+ * Opening a journal scans the last segment for the first missing or torn record, resumes
+ * appending there and zeroes the rest of the segment so stale bytes can't look valid later.
+ * <p>
+ * A record whose append was never acknowledged, because it didn't become durable in time, is
+ * voided: its magic is overwritten so {@link #read} skips it while recovery still counts it.
+ */
+public class MappedBetJournal implements AutoCloseable {
+
+    static final int RECORD_BYTES = 44;
+
+    private static final int MAGIC = 0x42455431; // "BET1"
+    private static final int VOID = 0x564F4944; // "VOID"
+    private static final int CHECKSUMMED_BYTES = RECORD_BYTES - 2 * Integer.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("bets-(\\d+)\\.journal");
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long recordsPerSegment;
+    private final FsyncPolicy fsync;
+    private final CRC32 crc = new CRC32();
+    private final Object durableMonitor = new Object();
+
+    private long segment = -1;
+    private MappedByteBuffer buffer;
+    private volatile long nextSequence;
+    private long durableSequence;
+
+    public interface RecordHandler {
+        void accept(long sequence, long playerId, long roundId, int number, long amountCents, long placedAtMillis);
+    }
+
+    /**
+     * Opens the journal in {@code directory}, resuming after the last valid record or at
+     * {@code fromSequence} if that is further along (e.g. all segments were projected and deleted).
+     */
+    public MappedBetJournal(Path directory, int segmentBytes, FsyncPolicy fsync, long fromSequence) {
+        if (segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("Segment size must hold at least one record");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.recordsPerSegment = segmentBytes / RECORD_BYTES;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create bet journal directory " + directory, e);
+        }
+
+        List<Long> segments = segments();
+        long recovered = segments.isEmpty() ? 0 : recover(segments.get(segments.size() - 1));
+        this.nextSequence = Math.max(recovered, fromSequence);
+        this.durableSequence = nextSequence;
+    }
+
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * End of the records that are durable per the fsync policy. Under {@code GROUP} that is
+     * what the last {@link #force()} covered; the other policies don't wait for a force.
+     */
+    public long durableSequence() {
+        if (fsync != FsyncPolicy.GROUP) {
+            return nextSequence;
+        }
+        synchronized (durableMonitor) {
+            return durableSequence;
+        }
+    }
+
+    public synchronized long append(long playerId, long roundId, int number, long amountCents, long placedAtMillis) {
+        long sequence = nextSequence;
+        mapSegmentFor(sequence);
+        int position = position(sequence);
+        buffer.putInt(position, MAGIC);
+        buffer.putLong(position + 4, playerId);
+        buffer.putLong(position + 12, roundId);
+        buffer.putInt(position + 20, number);
+        buffer.putLong(position + 24, amountCents);
+        buffer.putLong(position + 32, placedAtMillis);
+        buffer.putInt(position + 40, checksum(buffer, position));
+        if (fsync == FsyncPolicy.ALWAYS) {
+            buffer.force(position, RECORD_BYTES);
+        }
+        nextSequence = sequence + 1;
+        return sequence;
+    }
+
+    /**
+     * Forces everything appended so far to disk and wakes threads waiting in {@link #awaitDurable(long)}.
+     */
+    public void force() {
+        MappedByteBuffer current;
+        long upTo;
+        synchronized (this) {
+            current = buffer;
+            upTo = nextSequence;
+        }
+        if (current != null) {
+            current.force();
+        }
+        synchronized (durableMonitor) {
+            if (upTo > durableSequence) {
+                durableSequence = upTo;
+                durableMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until a {@link #force()} covers {@code sequence}. If none does within
+     * {@code timeoutMillis}, or the wait is interrupted, the record is voided before it
+     * becomes readable, so a bet that is refused is never projected either.
+     */
+    public void awaitDurable(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (durableMonitor) {
+            try {
+                while (durableSequence <= sequence) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        voidRecord(sequence);
+                        throw new IllegalStateException("Bet journal record " + sequence
+                                + " was not forced to disk within " + timeoutMillis + " ms");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(durableMonitor, remaining);
+                }
+            } catch (InterruptedException e) {
+                voidRecord(sequence);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reads the records in {@code [fromSequence, toSequence)}.
+     */
+    public void read(long fromSequence, long toSequence, RecordHandler handler) {
+        long sequence = fromSequence;
+        while (sequence < toSequence) {
+            long segmentOfRecord = sequence / recordsPerSegment;
+            long segmentEnd = Math.min(toSequence, (segmentOfRecord + 1) * recordsPerSegment);
+            ByteBuffer records = readableSegment(segmentOfRecord);
+            for (; sequence < segmentEnd; sequence++) {
+                int position = position(sequence);
+                if (!isRecord(records, position)) {
+                    throw new IllegalStateException("Corrupt bet journal record " + sequence);
+                }
+                if (records.getInt(position) == VOID) {
+                    continue;
+                }
+                handler.accept(sequence, records.getLong(position + 4), records.getLong(position + 12),
+                        records.getInt(position + 20), records.getLong(position + 24), records.getLong(position + 32));
+            }
+        }
+    }
+
+    /**
+     * Deletes segments holding only records before {@code sequence}.
+     */
+    public void deleteBefore(long sequence) {
+        long firstKept = Math.min(sequence / recordsPerSegment, segment);
+        for (long existing : segments()) {
+            if (existing < firstKept) {
+                try {
+                    Files.deleteIfExists(path(existing));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        synchronized (this) {
+            buffer = null;
+        }
+    }
+
+    private long recover(long lastSegment) {
+        MappedByteBuffer records = map(lastSegment);
+        long valid = 0;
+        while (valid < recordsPerSegment) {
+            int position = (int) (valid * RECORD_BYTES);
+            if (!isRecord(records, position)) {
+                break;
+            }
+            valid++;
+        }
+        byte[] zeros = new byte[64 * 1024];
+        for (int position = (int) (valid * RECORD_BYTES); position < segmentBytes; position += zeros.length) {
+            records.put(position, zeros, 0, Math.min(zeros.length, segmentBytes - position));
+        }
+        records.force();
+        this.segment = lastSegment;
+        this.buffer = records;
+        return lastSegment * recordsPerSegment + valid;
+    }
+
+    private boolean isRecord(ByteBuffer records, int position) {
+        int magic = records.getInt(position);
+        return (magic == MAGIC || magic == VOID) && records.getInt(position + 40) == checksum(records, position);
+    }
+
+    // Called with durableMonitor held, so no force can declare the record durable meanwhile
+    private void voidRecord(long sequence) {
+        ByteBuffer records = readableSegment(sequence / recordsPerSegment);
+        records.putInt(position(sequence), VOID);
+        if (records instanceof MappedByteBuffer mapped) {
+            try {
+                // A force already under way may have written the record before it was voided
+                mapped.force(position(sequence), Integer.BYTES);
+            } catch (UncheckedIOException e) {
+                // The caller fails the append anyway
+            }
+        }
+    }
+
+    private void mapSegmentFor(long sequence) {
+        long needed = sequence / recordsPerSegment;
+        if (needed == segment) {
+            return;
+        }
+        if (buffer != null && fsync != FsyncPolicy.NONE) {
+            buffer.force();
+        }
+        buffer = map(needed);
+        segment = needed;
+    }
+
+    private ByteBuffer readableSegment(long segmentOfRecord) {
+        synchronized (this) {
+            if (segmentOfRecord == segment) {
+                return buffer.duplicate();
+            }
+        }
+        return map(segmentOfRecord);
+    }
+
+    private MappedByteBuffer map(long segmentNumber) {
+        try (FileChannel channel = FileChannel.open(path(segmentNumber),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() != 0 && channel.size() != segmentBytes) {
+                throw new IllegalStateException("Bet journal segment " + segmentNumber + " has size " + channel.size()
+                        + " but app.bets.journal.segment-bytes is " + segmentBytes);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Long> segments() {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private int checksum(ByteBuffer records, int position) {
+        synchronized (crc) {
+            crc.reset();
+            crc.update(records.slice(position + 4, CHECKSUMMED_BYTES));
+            return (int) crc.getValue();
+        }
+    }
+
+    private int position(long sequence) {
+        return (int) (sequence % recordsPerSegment) * RECORD_BYTES;
+    }
+
+    private Path path(long segmentNumber) {
+        return directory.resolve("bets-" + segmentNumber + ".journal");
+    }
+}
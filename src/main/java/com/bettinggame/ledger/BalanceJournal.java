@@ -0,0 +1,152 @@
+package com.bettinggame.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of balance changes, split into numbered segments. Each record is a
+ * fixed 32 bytes: player id, balance delta and winnings delta in cents, and the round a
+ * payout is for (0 for other changes). A segment is sealed when the ledger flushes and
+ * deleted once its changes are committed to the database.
+ */
+class BalanceJournal implements AutoCloseable {
+
+    static final int RECORD_BYTES = 4 * Long.BYTES;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("balance-(\\d+)\\.journal");
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private FileChannel channel;
+    private long segment;
+    private long recordsInSegment;
+
+    BalanceJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create ledger journal directory " + directory, e);
+        }
+    }
+
+    interface RecordHandler {
+        void accept(long playerId, long balanceDeltaCents, long winningsDeltaCents, long gameRoundId);
+    }
+
+    List<Long> segments() {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    void read(long segment, RecordHandler handler) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path(segment)));
+            // A crash can leave a torn record at the end; it was never acknowledged, so skip it
+            while (buffer.remaining() >= RECORD_BYTES) {
+                handler.accept(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void open(long segment) {
+        try {
+            this.channel = FileChannel.open(path(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.segment = segment;
+            this.recordsInSegment = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void append(long playerId, long balanceDeltaCents, long winningsDeltaCents, long gameRoundId) {
+        record.clear();
+        record.putLong(playerId).putLong(balanceDeltaCents).putLong(winningsDeltaCents).putLong(gameRoundId).flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        recordsInSegment++;
+    }
+
+    /**
+     * Seals the current segment and continues in the next one. Returns the sealed segment,
+     * or -1 if nothing was written since the last rotation.
+     */
+    synchronized long rotate() {
+        if (recordsInSegment == 0) {
+            return -1;
+        }
+        long sealed = segment;
+        closeChannel();
+        open(sealed + 1);
+        return sealed;
+    }
+
+    void deleteUpTo(long lastSegment) {
+        for (long existing : segments()) {
+            if (existing <= lastSegment) {
+                try {
+                    Files.deleteIfExists(path(existing));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private Path path(long segment) {
+        return directory.resolve("balance-" + segment + ".journal");
+    }
+}
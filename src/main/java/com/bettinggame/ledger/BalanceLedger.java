@@ -0,0 +1,316 @@
+package com.bettinggame.ledger;
+
+import com.bettinggame.config.LedgerProperties;
+import com.bettinggame.model.JournalCheckpoint;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.JournalCheckpointRepository;
+import com.bettinggame.util.Cents;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind ledger of player balances. While the application runs the in-memory
+ * balances are authoritative: debits and credits are compare-and-set operations on
+ * fixed-point cents, appended to a {@link BalanceJournal}, and written to {@code players}
+ * as one batch of deltas per flush interval and once more at shutdown. On startup any
+ * journal segments not yet covered by the checkpoint are replayed into the database.
+ * <p>
+ * A payout is journaled with its round, and the flush that writes its delta marks the
+ * player's bet in that round paid in the same transaction. After a crash, a bet is
+ * therefore paid in the database exactly when its credit reached {@code players}, and an
+ * interrupted settlement can resume with the bets still unpaid.
+ */
+@Service
+@EnableConfigurationProperties(LedgerProperties.class)
+@Slf4j
+public class BalanceLedger implements SmartLifecycle {
+
+    static final String CHECKPOINT_NAME = "balance-ledger";
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE players SET balance = balance + ?, total_winnings = total_winnings + ? WHERE id = ?";
+    private static final String MARK_PAID_SQL =
+            "UPDATE bets SET paid = TRUE WHERE game_round_id = ? AND player_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final LedgerProperties properties;
+
+    private final ConcurrentHashMap<Long, Account> accounts = new ConcurrentHashMap<>();
+    // Payouts journaled since the last flush, as {round id, player id}
+    private final Queue<long[]> pendingPayouts = new ConcurrentLinkedQueue<>();
+    // Held shared by balance changes and exclusively while a flush seals the journal and drains deltas
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private volatile BalanceJournal journal;
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public BalanceLedger(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         JournalCheckpointRepository checkpointRepository,
+                         LedgerProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        BalanceJournal opened = new BalanceJournal(Path.of(properties.getJournalDir()), properties.isFsync());
+        long lastSegment = replay(opened);
+        opened.open(lastSegment + 1);
+        journal = opened;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-ledger-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                properties.getFlushIntervalMillis(), properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after everything that moves money (web server, round scheduler)
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Debits the player if the balance covers the amount. Returns {@code false} without
+     * changing anything otherwise.
+     */
+    public boolean tryDebit(Player player, long amountCents) {
+        flushLock.readLock().lock();
+        try {
+            Account account = account(player);
+            long balance;
+            do {
+                balance = account.balanceCents.get();
+                if (balance < amountCents) {
+                    return false;
+                }
+            } while (!account.balanceCents.compareAndSet(balance, balance - amountCents));
+            try {
+                journal().append(player.getId(), -amountCents, 0, 0);
+            } catch (RuntimeException e) {
+                account.balanceCents.addAndGet(amountCents);
+                throw e;
+            }
+            account.pendingBalanceCents.addAndGet(-amountCents);
+            return true;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    // Returns a stake, e.g. when the bet could not be stored
+    public void credit(Player player, long amountCents) {
+        apply(player, amountCents, 0, 0);
+    }
+
+    // Pays the player's bet in the given round; the flush marks that bet paid
+    public void creditWinnings(Player player, long amountCents, long gameRoundId) {
+        apply(player, amountCents, amountCents, gameRoundId);
+    }
+
+    private void apply(Player player, long balanceDeltaCents, long winningsDeltaCents, long gameRoundId) {
+        flushLock.readLock().lock();
+        try {
+            Account account = account(player);
+            journal().append(player.getId(), balanceDeltaCents, winningsDeltaCents, gameRoundId);
+            if (gameRoundId != 0) {
+                pendingPayouts.add(new long[]{gameRoundId, player.getId()});
+            }
+            account.balanceCents.addAndGet(balanceDeltaCents);
+            account.totalWinningsCents.addAndGet(winningsDeltaCents);
+            account.pendingBalanceCents.addAndGet(balanceDeltaCents);
+            account.pendingWinningsCents.addAndGet(winningsDeltaCents);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Overwrites the balance fields of a loaded player with the live values, if the ledger
+     * tracks that player. The columns are not updatable, so this never leaks into an UPDATE.
+     */
+    public void applyTo(Player player) {
+        Account account = accounts.get(player.getId());
+        if (account != null) {
+            player.setBalance(Cents.toAmount(account.balanceCents.get()));
+            player.setTotalWinnings(Cents.toAmount(account.totalWinningsCents.get()));
+        }
+    }
+
+    /**
+     * Writes the changes made since the last flush to {@code players}. Returns the number
+     * of players updated.
+     */
+    public int flush() {
+        long sealed;
+        Map<Long, long[]> deltas = new HashMap<>();
+        List<long[]> payouts = new ArrayList<>();
+        flushLock.writeLock().lock();
+        try {
+            sealed = journal().rotate();
+            if (sealed < 0) {
+                return 0;
+            }
+            accounts.forEach((playerId, account) -> {
+                long balanceDelta = account.pendingBalanceCents.getAndSet(0);
+                long winningsDelta = account.pendingWinningsCents.getAndSet(0);
+                if (balanceDelta != 0 || winningsDelta != 0) {
+                    deltas.put(playerId, new long[]{balanceDelta, winningsDelta});
+                }
+            });
+            for (long[] payout; (payout = pendingPayouts.poll()) != null; ) {
+                payouts.add(payout);
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeDeltas(deltas, payouts, sealed));
+        } catch (RuntimeException e) {
+            // The sealed segment stays on disk, and the next flush retries these deltas
+            deltas.forEach((playerId, delta) -> {
+                Account account = accounts.get(playerId);
+                account.pendingBalanceCents.addAndGet(delta[0]);
+                account.pendingWinningsCents.addAndGet(delta[1]);
+            });
+            pendingPayouts.addAll(payouts);
+            throw e;
+        }
+        journal().deleteUpTo(sealed);
+        return deltas.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            int flushed = flush();
+            if (flushed > 0) {
+                log.debug("Flushed balances of {} player(s)", flushed);
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush player balances: ", e);
+        }
+    }
+
+    private long replay(BalanceJournal replayed) {
+        long checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .map(JournalCheckpoint::getPosition)
+                .orElse(0L);
+        long lastSegment = checkpoint;
+        Map<Long, long[]> deltas = new HashMap<>();
+        List<long[]> payouts = new ArrayList<>();
+        for (long segment : replayed.segments()) {
+            lastSegment = Math.max(lastSegment, segment);
+            if (segment > checkpoint) {
+                replayed.read(segment, (playerId, balanceDelta, winningsDelta, gameRoundId) -> {
+                    long[] delta = deltas.computeIfAbsent(playerId, id -> new long[2]);
+                    delta[0] += balanceDelta;
+                    delta[1] += winningsDelta;
+                    if (gameRoundId != 0) {
+                        payouts.add(new long[]{gameRoundId, playerId});
+                    }
+                });
+            }
+        }
+        if (lastSegment > checkpoint) {
+            long replayedUpTo = lastSegment;
+            transactionTemplate.executeWithoutResult(status -> writeDeltas(deltas, payouts, replayedUpTo));
+            log.warn("Replayed unflushed balance changes of {} player(s) from the ledger journal", deltas.size());
+        }
+        replayed.deleteUpTo(lastSegment);
+        return lastSegment;
+    }
+
+    private void writeDeltas(Map<Long, long[]> deltas, List<long[]> payouts, long segment) {
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((playerId, delta) ->
+                batch.add(new Object[]{Cents.toAmount(delta[0]), Cents.toAmount(delta[1]), playerId}));
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batch);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                log.warn("Balance change for unknown player {} dropped", batch.get(i)[2]);
+            }
+        }
+        if (!payouts.isEmpty()) {
+            List<Object[]> paid = new ArrayList<>(payouts.size());
+            payouts.forEach(payout -> paid.add(new Object[]{payout[0], payout[1]}));
+            jdbcTemplate.batchUpdate(MARK_PAID_SQL, paid);
+        }
+        checkpointRepository.save(JournalCheckpoint.builder()
+                .name(CHECKPOINT_NAME)
+                .position(segment)
+                .build());
+    }
+
+    private Account account(Player player) {
+        return accounts.computeIfAbsent(player.getId(), id -> new Account(
+                Cents.of(player.getBalance()), Cents.of(player.getTotalWinnings())));
+    }
+
+    private BalanceJournal journal() {
+        BalanceJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Balance ledger is not running");
+        }
+        return current;
+    }
+
+    private static final class Account {
+
+        private final AtomicLong balanceCents;
+        private final AtomicLong totalWinningsCents;
+        private final AtomicLong pendingBalanceCents = new AtomicLong();
+        private final AtomicLong pendingWinningsCents = new AtomicLong();
+
+        private Account(long balanceCents, long totalWinningsCents) {
+            this.balanceCents = new AtomicLong(balanceCents);
+            this.totalWinningsCents = new AtomicLong(totalWinningsCents);
+        }
+    }
+}
@@ -10,18 +10,26 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bets")
+@Table(name = "bets", uniqueConstraints = {
+        // One bet per player per round; also serves the lookups by round and by round and player
+        @UniqueConstraint(name = Bet.ROUND_PLAYER_CONSTRAINT, columnNames = {"game_round_id", "player_id"})
+}, indexes = {
+        @Index(name = "idx_bets_player_placed_at", columnList = "player_id, placed_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Bet {
     
+    public static final String ROUND_PLAYER_CONSTRAINT = "uk_bets_round_player";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -53,6 +61,12 @@ public class Bet {
     @Column(nullable = false)
     private Boolean isWinner = false;
     
+    // Set by the balance ledger in the flush that writes this bet's payout
+    @Builder.Default
+    @ColumnDefault("false")
+    @Column(nullable = false, updatable = false)
+    private Boolean paid = false;
+    
     @Builder.Default
     @Column(nullable = false)
     private LocalDateTime placedAt = LocalDateTime.now();
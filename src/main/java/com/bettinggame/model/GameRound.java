@@ -11,17 +11,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "game_rounds")
+@Table(name = "game_rounds", indexes = {
+        @Index(name = "idx_game_rounds_table_status_start_time", columnList = "table_id, status, start_time"),
+        @Index(name = "idx_game_rounds_settlement_status", columnList = "settlement_status")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class GameRound {
     
+    public static final int DEFAULT_TABLE_ID = 1;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer tableId = DEFAULT_TABLE_ID;
+    
     @Column
     private Integer winningNumber;
     
@@ -37,6 +46,11 @@ public class GameRound {
     @Column(nullable = false)
     private GameRoundStatus status = GameRoundStatus.BETTING_OPEN;
     
+    // Set when the round is drawn; stays short of SETTLED until every winner has been credited
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private SettlementStatus settlementStatus;
+    
     @OneToMany(mappedBy = "gameRound", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Bet> bets = new ArrayList<>();
@@ -46,4 +60,11 @@ public class GameRound {
         BETTING_CLOSED,
         COMPLETED
     }
+    
+    public enum SettlementStatus {
+        PENDING,
+        PAYING,
+        SETTLED,
+        FAILED
+    }
 }
@@ -0,0 +1,28 @@
+package com.bettinggame.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far a journal is reflected in the database, written in the same transaction as the
+ * changes so a journal is never replayed twice. The balance ledger stores its last flushed
+ * segment, the bet journal the sequence of the next record to project.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalCheckpoint {
+    
+    @Id
+    @Column(length = 50)
+    private String name;
+    
+    @Column(nullable = false)
+    private Long position;
+}
@@ -31,11 +31,12 @@ public class Player {
     @Column(unique = true, nullable = false)
     private String nickname;
     
-    @Column(nullable = false)
+    // Balances change only through the balance ledger's delta updates, never by rewriting the row
+    @Column(nullable = false, updatable = false)
     @Builder.Default
     private BigDecimal balance = BigDecimal.ZERO;
     
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     @Builder.Default
     private BigDecimal totalWinnings = BigDecimal.ZERO;
     
@@ -1,20 +1,57 @@
 package com.bettinggame.repository;
 
+import com.bettinggame.dto.BetHistoryItem;
 import com.bettinggame.model.Bet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BetRepository extends JpaRepository<Bet, Long> {
     
     List<Bet> findByGameRoundId(Long gameRoundId);
     
-    List<Bet> findByPlayerIdOrderByPlacedAtDesc(Long playerId);
+    @Query("SELECT b FROM Bet b JOIN FETCH b.player WHERE b.gameRound.id = :gameRoundId")
+    List<Bet> findByGameRoundIdWithPlayer(@Param("gameRoundId") Long gameRoundId);
+    
+    // Winners whose payout has not reached the players table yet
+    @Query("SELECT b FROM Bet b JOIN FETCH b.player WHERE b.gameRound.id = :gameRoundId AND b.isWinner = true AND b.paid = false")
+    List<Bet> findUnpaidWinningBetsWithPlayer(@Param("gameRoundId") Long gameRoundId);
+    
+    // Newest first; backed by idx_bets_player_placed_at
+    @Query("SELECT new com.bettinggame.dto.BetHistoryItem(b.id, b.gameRound.id, b.betNumber, b.betAmount, b.isWinner, b.winnings, b.placedAt) " +
+           "FROM Bet b WHERE b.player.id = :playerId ORDER BY b.placedAt DESC, b.id DESC")
+    List<BetHistoryItem> findHistory(@Param("playerId") Long playerId, Pageable pageable);
+    
+    // Keyset continuation after the (placedAt, id) of the last bet already returned
+    @Query("SELECT new com.bettinggame.dto.BetHistoryItem(b.id, b.gameRound.id, b.betNumber, b.betAmount, b.isWinner, b.winnings, b.placedAt) " +
+           "FROM Bet b WHERE b.player.id = :playerId " +
+           "AND (b.placedAt < :placedAt OR (b.placedAt = :placedAt AND b.id < :id)) " +
+           "ORDER BY b.placedAt DESC, b.id DESC")
+    List<BetHistoryItem> findHistoryAfter(@Param("playerId") Long playerId,
+                                          @Param("placedAt") LocalDateTime placedAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+    
+    // Must be consumed inside a transaction; rows are fetched in chunks instead of materialized
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.bettinggame.dto.BetHistoryItem(b.id, b.gameRound.id, b.betNumber, b.betAmount, b.isWinner, b.winnings, b.placedAt) " +
+           "FROM Bet b WHERE b.player.id = :playerId ORDER BY b.placedAt DESC, b.id DESC")
+    Stream<BetHistoryItem> streamHistory(@Param("playerId") Long playerId);
     
     @Query("SELECT b FROM Bet b WHERE b.gameRound.id = :gameRoundId AND b.player.id = :playerId")
     Optional<Bet> findByGameRoundIdAndPlayerId(@Param("gameRoundId") Long gameRoundId, 
@@ -22,4 +59,18 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     
     @Query("SELECT b FROM Bet b WHERE b.gameRound.id = :gameRoundId AND b.isWinner = true")
     List<Bet> findWinningBetsByGameRoundId(@Param("gameRoundId") Long gameRoundId);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Bet b SET b.isWinner = true, b.winnings = b.betAmount * :multiplier " +
+           "WHERE b.gameRound.id = :gameRoundId AND b.betNumber = :winningNumber")
+    int settleWinningBets(@Param("gameRoundId") Long gameRoundId,
+                          @Param("winningNumber") Integer winningNumber,
+                          @Param("multiplier") BigDecimal multiplier);
+    
+    // Undoes a bet committed after its round was closed; runs after the bet's own transaction
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM Bet b WHERE b.gameRound.id = :gameRoundId AND b.player.id = :playerId")
+    int deleteByGameRoundIdAndPlayerId(@Param("gameRoundId") Long gameRoundId,
+                                       @Param("playerId") Long playerId);
 }
@@ -2,17 +2,38 @@ package com.bettinggame.repository;
 
 import com.bettinggame.model.GameRound;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GameRoundRepository extends JpaRepository<GameRound, Long> {
     
-    @Query("SELECT gr FROM GameRound gr WHERE gr.status = 'BETTING_OPEN' ORDER BY gr.startTime DESC")
-    Optional<GameRound> findCurrentActiveRound();
+    // Newest round of a table in the given status; LIMIT 1 on idx_game_rounds_table_status_start_time
+    Optional<GameRound> findFirstByTableIdAndStatusOrderByStartTimeDesc(Integer tableId, GameRound.GameRoundStatus status);
     
-    @Query("SELECT gr FROM GameRound gr ORDER BY gr.startTime DESC")
-    Optional<GameRound> findLatestRound();
+    // Ids are assigned in creation order, so the primary key finds the latest round
+    Optional<GameRound> findFirstByOrderByIdDesc();
+    
+    // Drawn rounds left unpaid; served by idx_game_rounds_settlement_status
+    List<GameRound> findBySettlementStatusInAndEndTimeBeforeOrderById(Collection<GameRound.SettlementStatus> statuses,
+                                                                      LocalDateTime endedBefore);
+    
+    // Conditional so only one settler moves a round to PAYING; rounds from before the column count as unsettled
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE GameRound r SET r.settlementStatus = :paying " +
+           "WHERE r.id = :id AND (r.settlementStatus IS NULL OR r.settlementStatus IN :claimable)")
+    int claimSettlement(@Param("id") Long id,
+                        @Param("paying") GameRound.SettlementStatus paying,
+                        @Param("claimable") Collection<GameRound.SettlementStatus> claimable);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE GameRound r SET r.settlementStatus = :status WHERE r.id = :id")
+    int updateSettlementStatus(@Param("id") Long id, @Param("status") GameRound.SettlementStatus status);
 }
@@ -1,6 +1,8 @@
 package com.bettinggame.repository;
 
+import com.bettinggame.dto.PlayerStanding;
 import com.bettinggame.model.Player;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -15,6 +17,7 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
     
     boolean existsByNickname(String nickname);
     
-    @Query("SELECT p FROM Player p ORDER BY p.totalWinnings DESC")
-    List<Player> findTopWinners();
+    @Query("SELECT new com.bettinggame.dto.PlayerStanding(p.id, p.nickname, p.totalWinnings) " +
+           "FROM Player p WHERE p.totalWinnings > 0 ORDER BY p.totalWinnings DESC, p.id")
+    List<PlayerStanding> findTopWinners(Pageable pageable);
 }
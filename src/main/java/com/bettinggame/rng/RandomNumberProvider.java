@@ -0,0 +1,13 @@
+package com.bettinggame.rng;
+
+/**
+ * Source of the random numbers used to draw winning numbers. Implementations must be
+ * safe to call from several threads at once.
+ */
+public interface RandomNumberProvider {
+
+    /**
+     * Returns a uniformly distributed value in {@code [0, bound)}.
+     */
+    int nextInt(int bound);
+}
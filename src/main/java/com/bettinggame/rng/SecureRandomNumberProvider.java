@@ -0,0 +1,60 @@
+package com.bettinggame.rng;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Draws from a {@link SecureRandom} (e.g. a certified DRBG). Each thread prefetches a
+ * block of random bytes at a time, so the generator is only entered once per block
+ * rather than once per draw.
+ */
+public class SecureRandomNumberProvider implements RandomNumberProvider {
+
+    private final SecureRandom secureRandom;
+    private final int bufferSize;
+    private final ThreadLocal<ByteBuffer> buffers;
+
+    public SecureRandomNumberProvider(String algorithm, int bufferSize) {
+        if (bufferSize < Integer.BYTES || bufferSize % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("Buffer size must be a positive multiple of " + Integer.BYTES);
+        }
+        try {
+            this.secureRandom = algorithm == null || algorithm.isBlank()
+                    ? new SecureRandom()
+                    : SecureRandom.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported SecureRandom algorithm: " + algorithm, e);
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(bufferSize).position(bufferSize));
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        // Rejection sampling keeps the result unbiased for bounds that don't divide 2^31
+        int bits;
+        int value;
+        do {
+            bits = nextInt31();
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    private int nextInt31() {
+        ByteBuffer buffer = buffers.get();
+        if (!buffer.hasRemaining()) {
+            secureRandom.nextBytes(buffer.array());
+            buffer.clear();
+        }
+        return buffer.getInt() >>> 1;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,27 @@
+package com.bettinggame.rng;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic sequence from a fixed seed, used to replay a recorded sequence of draws.
+ * Draws are serialized so the sequence only depends on the order of calls.
+ */
+public class SeededRandomNumberProvider implements RandomNumberProvider {
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    public SeededRandomNumberProvider(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public synchronized int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bettinggame.rng;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * One independently seeded generator per thread, so concurrent draws never share
+ * state. Defaults to {@code L64X128MixRandom}; any {@link RandomGeneratorFactory}
+ * algorithm such as {@code SplittableRandom} can be used instead.
+ */
+public class ThreadLocalRandomNumberProvider implements RandomNumberProvider {
+
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    private final ThreadLocal<RandomGenerator> generators;
+
+    public ThreadLocalRandomNumberProvider() {
+        this(DEFAULT_ALGORITHM);
+    }
+
+    public ThreadLocalRandomNumberProvider(String algorithm) {
+        RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(algorithm);
+        this.generators = ThreadLocal.withInitial(factory::create);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return generators.get().nextInt(bound);
+    }
+}
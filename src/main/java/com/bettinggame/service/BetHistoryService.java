@@ -0,0 +1,146 @@
+package com.bettinggame.service;
+
+import com.bettinggame.dto.BetHistoryItem;
+import com.bettinggame.dto.BetHistoryPage;
+import com.bettinggame.journal.BetStore;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.BetRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A player's bet history, newest first. Pages are keyset-paginated on {@code (placed_at, id)}
+ * so every page is an index range scan no matter how deep it is, and the full export is
+ * streamed from a database cursor instead of being loaded into memory.
+ * <p>
+ * Journaled bets are projected into the {@code bets} table before the read-only transaction
+ * starts, since projecting writes rows.
+ */
+@Service
+@Slf4j
+public class BetHistoryService {
+    
+    private static final int EXPORT_FLUSH_EVERY = 500;
+    
+    private final BetRepository betRepository;
+    private final BetStore betStore;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public BetHistoryService(BetRepository betRepository, BetStore betStore, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.betRepository = betRepository;
+        this.betStore = betStore;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Returns up to {@code limit} bets placed before {@code cursor}, or the newest bets if
+     * {@code cursor} is {@code null}. The page's {@code nextCursor} continues from its last bet.
+     */
+    public BetHistoryPage getHistory(Player player, String cursor, int limit) {
+        betStore.awaitPersisted();
+        return readOnlyTransaction.execute(status -> readHistory(player, cursor, limit));
+    }
+    
+    private BetHistoryPage readHistory(Player player, String cursor, int limit) {
+        // One extra row tells whether another page exists without a count query
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<BetHistoryItem> bets;
+        if (cursor == null) {
+            bets = betRepository.findHistory(player.getId(), window);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            bets = betRepository.findHistoryAfter(player.getId(), after.placedAt(), after.id(), window);
+        }
+        
+        String nextCursor = null;
+        if (bets.size() > limit) {
+            bets = bets.subList(0, limit);
+            BetHistoryItem last = bets.get(limit - 1);
+            nextCursor = new Cursor(last.getPlacedAt(), last.getId()).encode();
+        }
+        return BetHistoryPage.builder()
+                .bets(bets)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    /**
+     * Writes the player's whole bet history to {@code out} as newline-delimited JSON. Returns
+     * the number of bets written.
+     */
+    public long exportHistory(Player player, OutputStream out) throws IOException {
+        betStore.awaitPersisted();
+        try {
+            return readOnlyTransaction.execute(status -> {
+                try {
+                    return writeHistory(player, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private long writeHistory(Player player, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BetHistoryItem.class);
+        long written = 0;
+        try (Stream<BetHistoryItem> bets = betRepository.streamHistory(player.getId());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (BetHistoryItem bet : (Iterable<BetHistoryItem>) bets::iterator) {
+                writer.writeValue(generator, bet);
+                generator.writeRaw('\n');
+                if (++written % EXPORT_FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        log.info("Exported {} bet(s) of player {}", written, player.getNickname());
+        return written;
+    }
+    
+    /**
+     * Opaque page cursor: the {@code (placedAt, id)} of the last bet on the previous page.
+     */
+    record Cursor(LocalDateTime placedAt, long id) {
+        
+        String encode() {
+            String raw = placedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
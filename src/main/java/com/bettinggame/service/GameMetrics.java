@@ -0,0 +1,68 @@
+package com.bettinggame.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the bet hot path, built once so recording is a lookup-free call.
+ * <p>
+ * {@code game.bet.placement} times {@link GameService#placeBet(int, com.bettinggame.dto.BetRequest)}
+ * up to, not including, the commit, tagged by outcome; {@code game.bet.rejected} counts refused
+ * bets by reason; {@code game.round.rng} times drawing a winning number, so a slow draw can be
+ * told apart from the database ({@code spring.data.repository.invocations}) and the broker
+ * ({@code game.broadcast}).
+ */
+@Component
+public class GameMetrics {
+
+    public static final String NO_OPEN_ROUND = "no_open_round";
+    public static final String UNKNOWN_PLAYER = "unknown_player";
+    public static final String DUPLICATE = "duplicate";
+    public static final String INSUFFICIENT_BALANCE = "insufficient_balance";
+    public static final String STORE_FAILURE = "store_failure";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer acceptedTimer;
+    private final Timer rejectedTimer;
+    private final Timer rngTimer;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public GameMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.acceptedTimer = placementTimer("accepted");
+        this.rejectedTimer = placementTimer("rejected");
+        this.rngTimer = Timer.builder("game.round.rng")
+                .description("Time to draw a winning number")
+                .register(meterRegistry);
+    }
+
+    public void betAccepted(long startNanos) {
+        acceptedTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void betRejected(long startNanos, String reason) {
+        rejectedTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        rejections.computeIfAbsent(reason, key -> Counter.builder("game.bet.rejected")
+                .description("Bets refused, by reason")
+                .tag("reason", key)
+                .register(meterRegistry)).increment();
+    }
+
+    public void winningNumberDrawn(long startNanos) {
+        rngTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer placementTimer(String outcome) {
+        return Timer.builder("game.bet.placement")
+                .description("Time to accept or refuse a bet, excluding the commit")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
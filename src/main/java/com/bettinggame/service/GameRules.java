@@ -0,0 +1,20 @@
+package com.bettinggame.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Payout rules shared by live rounds and the RTP simulator, so a payout change
+ * only has to be made in one place.
+ */
+public final class GameRules {
+
+    public static final int MIN_NUMBER = 1;
+    public static final int MAX_NUMBER = 10;
+    public static final int NUMBERS = MAX_NUMBER - MIN_NUMBER + 1;
+
+    public static final BigDecimal WIN_MULTIPLIER = BigDecimal.valueOf(9.9);
+    public static final long WIN_MULTIPLIER_HUNDREDTHS = WIN_MULTIPLIER.movePointRight(2).longValueExact();
+
+    private GameRules() {
+    }
+}
@@ -1,111 +1,347 @@
 package com.bettinggame.service;
 
-import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.config.GameTableProperties;
 import com.bettinggame.dto.GameState;
+import com.bettinggame.dto.RoundDraw;
+import com.bettinggame.dto.RoundExposure;
+import com.bettinggame.model.Bet;
 import com.bettinggame.model.GameRound;
-import lombok.RequiredArgsConstructor;
+import com.bettinggame.util.HashedWheelTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Drives the round lifecycle of every game table. Tables are partitioned across a fixed
+ * set of single-threaded schedulers, so each table is always advanced by the same thread
+ * and independent tables progress in parallel.
+ * <p>
+ * Each phase change (open, close, draw) is a separate event with an absolute
+ * {@link System#nanoTime()} deadline on a {@link HashedWheelTimer}; when it fires the event is
+ * handed to the table's scheduler thread. Each deadline is derived from the previous deadline,
+ * not from when the event ran: close is the open deadline plus the betting duration, draw
+ * follows the close deadline and the next open is the draw deadline plus the intermission. Timer
+ * lateness and the time events take therefore don't accumulate across rounds. The lateness of
+ * every event is recorded as {@code game.round.timing.skew}, how long each event takes to run
+ * as {@code game.round.event}, and each table's open round is exposed as the gauges
+ * {@code game.round.open.bets} and {@code game.round.open.stake}.
+ * <p>
+ * Payouts are not a phase: the draw is committed and broadcast, the round's bets go to the
+ * {@link SettlementService}, and the next round opens after the intermission whether or not
+ * the previous one has finished settling.
+ */
 @Service
-@RequiredArgsConstructor
+@EnableConfigurationProperties(GameTableProperties.class)
 @Slf4j
-public class GameSchedulerService {
-    
+public class GameSchedulerService implements SmartLifecycle {
+
+    private static final int TIMER_WHEEL_SIZE = 512;
+
     private final GameService gameService;
-    private final SimpMessagingTemplate messagingTemplate;
-    
-    private static final long BETTING_DURATION_SECONDS = 10;
-    private GameRound currentRound;
-    private LocalDateTime roundStartTime;
-    
-    @Scheduled(fixedDelay = 1000) // Run every second
-    public void manageGameRounds() {
+    private final SettlementService settlementService;
+    private final GameStateBroadcaster broadcaster;
+    private final GameTableProperties properties;
+    // app.scheduling.enabled=false leaves rounds to benchmarks and tools that drive them themselves
+    private final boolean schedulingEnabled;
+
+    private final Map<Integer, GameTable> tables;
+    private final Map<RoundEvent, Timer> skewTimers = new EnumMap<>(RoundEvent.class);
+    private final Map<RoundEvent, Timer> eventTimers = new EnumMap<>(RoundEvent.class);
+    private final List<ScheduledExecutorService> partitions = new ArrayList<>();
+    private final Map<Integer, ScheduledExecutorService> tablePartitions = new HashMap<>();
+    private HashedWheelTimer timer;
+    private volatile boolean running;
+
+    public GameSchedulerService(GameService gameService,
+                                SettlementService settlementService,
+                                GameStateBroadcaster broadcaster,
+                                GameTableProperties properties,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.scheduling.enabled:true}") boolean schedulingEnabled) {
+        this.gameService = gameService;
+        this.settlementService = settlementService;
+        this.broadcaster = broadcaster;
+        this.properties = properties;
+        this.schedulingEnabled = schedulingEnabled;
+
+        Map<Integer, GameTable> created = new LinkedHashMap<>();
+        for (int id = GameRound.DEFAULT_TABLE_ID; id < GameRound.DEFAULT_TABLE_ID + properties.getCount(); id++) {
+            created.put(id, new GameTable(id));
+        }
+        this.tables = Collections.unmodifiableMap(created);
+
+        for (RoundEvent event : RoundEvent.values()) {
+            skewTimers.put(event, Timer.builder("game.round.timing.skew")
+                    .description("Delay between a round event's deadline and the moment it runs")
+                    .tag("event", event.name().toLowerCase())
+                    .register(meterRegistry));
+            eventTimers.put(event, Timer.builder("game.round.event")
+                    .description("Time to run a round event, including its database writes and broadcasts")
+                    .tag("event", event.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (GameTable table : tables.values()) {
+            String tableId = String.valueOf(table.getId());
+            Gauge.builder("game.round.open.bets", () -> gameService.getOpenBook(table.getId()).map(RoundBetBook::size).orElse(0))
+                    .description("Bets accepted so far in the table's open round")
+                    .tag("table", tableId)
+                    .register(meterRegistry);
+            Gauge.builder("game.round.open.stake", () -> gameService.getOpenBook(table.getId())
+                            .map(book -> book.getExposure().totalStakeCents()).orElse(0L))
+                    .description("Total stake of the table's open round")
+                    .baseUnit("cents")
+                    .tag("table", tableId)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void start() {
+        int partitionCount = properties.effectivePartitions();
+        List<List<GameTable>> assignments = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            assignments.add(new ArrayList<>());
+        }
+        int index = 0;
+        for (GameTable table : tables.values()) {
+            assignments.get(index++ % partitionCount).add(table);
+        }
+
+        timer = new HashedWheelTimer("game-round-timer",
+                TimeUnit.MILLISECONDS.toNanos(properties.getTimerTickMillis()), TIMER_WHEEL_SIZE);
+        AtomicInteger threadNumber = new AtomicInteger();
+        for (List<GameTable> assigned : assignments) {
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                    runnable -> new Thread(runnable, "game-tables-" + threadNumber.incrementAndGet()));
+            assigned.forEach(table -> tablePartitions.put(table.getId(), executor));
+            executor.scheduleAtFixedRate(() -> assigned.forEach(this::broadcastExposureIfChanged),
+                    properties.getExposureIntervalMillis(), properties.getExposureIntervalMillis(), TimeUnit.MILLISECONDS);
+            partitions.add(executor);
+        }
+        running = true;
+
+        long now = System.nanoTime();
+        tables.values().forEach(table -> schedule(table, RoundEvent.OPEN, now));
+        log.info("Started {} game table(s) on {} scheduler thread(s)", tables.size(), partitionCount);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (timer != null) {
+            timer.close();
+        }
+        partitions.forEach(ScheduledExecutorService::shutdownNow);
+        partitions.clear();
+        tablePartitions.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return schedulingEnabled;
+    }
+
+    private void schedule(GameTable table, RoundEvent event, long deadlineNanos) {
+        // Events run directly in tests; only a started scheduler chains the next one
+        if (!running) {
+            return;
+        }
+        ScheduledExecutorService executor = tablePartitions.get(table.getId());
+        timer.schedule(() -> {
+            if (!executor.isShutdown()) {
+                executor.execute(() -> runEvent(table, event, deadlineNanos));
+            }
+        }, deadlineNanos);
+    }
+
+    private void runEvent(GameTable table, RoundEvent event, long deadlineNanos) {
+        long skewNanos = Math.max(0, System.nanoTime() - deadlineNanos);
+        skewTimers.get(event).record(skewNanos, TimeUnit.NANOSECONDS);
+        long startNanos = System.nanoTime();
         try {
-            if (currentRound == null || 
-                currentRound.getStatus() == GameRound.GameRoundStatus.COMPLETED) {
-                startNewRound();
-            } else {
-                updateRoundProgress();
+            switch (event) {
+                case OPEN -> openRound(table, deadlineNanos);
+                case CLOSE -> closeRound(table, deadlineNanos);
+                case DRAW -> drawRound(table, deadlineNanos);
             }
+            table.recordSkew(skewNanos);
         } catch (Exception e) {
-            log.error("Error in game scheduler: ", e);
+            log.error("Error in {} event for table {}: ", event, table.getId(), e);
+            // Retry the same phase rather than leaving the table stuck; the chain resumes from the retry
+            schedule(table, event, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getIntermissionMillis()));
+        } finally {
+            eventTimers.get(event).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void openRound(GameTable table, long deadlineNanos) {
+        GameRound current = table.getCurrentRound();
+        // A retried OPEN takes over the round an earlier attempt opened instead of orphaning it
+        GameRound round = current != null && current.getStatus() == GameRound.GameRoundStatus.BETTING_OPEN
+                ? current
+                : gameService.createNewRound(table.getId());
+        long bettingNanos = TimeUnit.MILLISECONDS.toNanos(properties.getBettingDurationMillis());
+        long now = System.nanoTime();
+        long openedAt = deadlineNanos;
+        if (now - deadlineNanos > bettingNanos) {
+            // Chaining from a deadline this old would leave no time to bet, so start over from now
+            log.warn("Round on table {} opened {} ms late; restarting its schedule",
+                    table.getId(), TimeUnit.NANOSECONDS.toMillis(now - deadlineNanos));
+            openedAt = now;
         }
+        long closeDeadline = openedAt + bettingNanos;
+        table.startRound(round, System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(closeDeadline - now));
+
+        log.debug("New round started on table {}: {}", table.getId(), round.getId());
+
+        // Broadcast new round start; clients count down to bettingClosesAt themselves
+        publishState(table, buildState(table, true, "BETTING_OPEN"));
+        schedule(table, RoundEvent.CLOSE, closeDeadline);
+    }
+
+    void closeRound(GameTable table, long deadlineNanos) {
+        gameService.closeBetting(table.getCurrentRound());
+        publishState(table, buildState(table, false, "BETTING_CLOSED"));
+        schedule(table, RoundEvent.DRAW, deadlineNanos);
     }
-    
-    private void startNewRound() {
-        currentRound = gameService.createNewRound();
-        roundStartTime = LocalDateTime.now();
+
+    void drawRound(GameTable table, long deadlineNanos) {
+        // The stored row says whether an earlier attempt drew the round: a draw that failed to
+        // commit leaves its number on the in-memory copy, and must be drawn again, not announced
+        GameRound round = gameService.getRound(table.getCurrentRound().getId());
+        if (round.getWinningNumber() == null) {
+            gameService.drawRound(round);
+        }
+        table.roundDrawn(round);
+        Collection<Bet> bets = gameService.takeBets(round);
         
-        log.info("New round started: {}", currentRound.getId());
+        // Players see the winning number now; payouts follow per player as they are processed
+        send(table, table.getDrawTopic(), "/topic/round-draw", RoundDraw.builder()
+                .tableId(table.getId())
+                .roundId(round.getId())
+                .winningNumber(round.getWinningNumber())
+                .endTime(round.getEndTime())
+                .build());
+        publishState(table, buildState(table, false, "ROUND_COMPLETE"));
         
-        // Broadcast new round start
-        GameState gameState = GameState.builder()
-                .currentRoundId(currentRound.getId())
-                .timeRemaining(BETTING_DURATION_SECONDS)
-                .bettingOpen(true)
-                .phase("BETTING_OPEN")
-                .build();
+        settlementService.submit(table.getId(), round, bets)
+                .thenAccept(result -> result.ifPresent(
+                        settled -> send(table, table.getResultsTopic(), "/topic/round-results", settled)));
         
-        messagingTemplate.convertAndSend("/topic/game-state", gameState);
+        if (log.isDebugEnabled()) {
+            log.debug("Round {} on table {} max timing skew: {} us",
+                    round.getId(), table.getId(), TimeUnit.NANOSECONDS.toMicros(table.getMaxSkewNanos()));
+        }
+        schedule(table, RoundEvent.OPEN, deadlineNanos + TimeUnit.MILLISECONDS.toNanos(properties.getIntermissionMillis()));
     }
-    
-    private void updateRoundProgress() {
-        long secondsElapsed = ChronoUnit.SECONDS.between(roundStartTime, LocalDateTime.now());
-        long timeRemaining = BETTING_DURATION_SECONDS - secondsElapsed;
-        
-        if (timeRemaining <= 0 && currentRound.getStatus() == GameRound.GameRoundStatus.BETTING_OPEN) {
-            // Close betting
-            gameService.closeBetting(currentRound);
-            
-            GameState gameState = GameState.builder()
-                    .currentRoundId(currentRound.getId())
-                    .timeRemaining(0L)
-                    .bettingOpen(false)
-                    .phase("BETTING_CLOSED")
-                    .build();
-            
-            messagingTemplate.convertAndSend("/topic/game-state", gameState);
-            
-            // Complete the round
-            GameRoundResult result = gameService.completeRound(currentRound);
-            
-            // Broadcast results
-            messagingTemplate.convertAndSend("/topic/round-results", result);
-            
-            // Update game state to completed
-            gameState.setPhase("ROUND_COMPLETE");
-            messagingTemplate.convertAndSend("/topic/game-state", gameState);
-            
-        } else if (currentRound.getStatus() == GameRound.GameRoundStatus.BETTING_OPEN) {
-            // Update countdown
-            GameState gameState = GameState.builder()
-                    .currentRoundId(currentRound.getId())
-                    .timeRemaining(timeRemaining)
-                    .bettingOpen(true)
-                    .phase("BETTING_OPEN")
-                    .build();
-            
-            messagingTemplate.convertAndSend("/topic/game-state", gameState);
+
+    private void broadcastExposureIfChanged(GameTable table) {
+        GameRound round = table.getCurrentRound();
+        if (round == null || round.getStatus() != GameRound.GameRoundStatus.BETTING_OPEN) {
+            return;
+        }
+        Optional<RoundExposure> exposure = gameService.getExposure(table.getId());
+        if (exposure.isPresent() && exposure.get().getTotalStakeCents() != table.getLastBroadcastStakeCents()) {
+            table.setLastBroadcastStakeCents(exposure.get().getTotalStakeCents());
+            send(table, table.getExposureTopic(), "/topic/exposure", exposure.get());
         }
     }
-    
+
+    private void publishState(GameTable table, GameState state) {
+        broadcaster.publishState(table.getStateTopic(), state);
+        if (table.isDefault()) {
+            broadcaster.publishState(GameStateBroadcaster.GAME_STATE_TOPIC, state);
+        }
+    }
+
+    private void send(GameTable table, String tableTopic, String defaultTopic, Object payload) {
+        broadcaster.send(tableTopic, payload);
+        if (table.isDefault()) {
+            broadcaster.send(defaultTopic, payload);
+        }
+    }
+
+    private GameState buildState(GameTable table, boolean bettingOpen, String phase) {
+        return GameState.builder()
+                .tableId(table.getId())
+                .currentRoundId(table.getCurrentRound().getId())
+                .bettingOpen(bettingOpen)
+                .phase(phase)
+                .bettingClosesAt(bettingOpen ? table.getBettingClosesAt() : null)
+                .serverTime(System.currentTimeMillis())
+                .build();
+    }
+
+    public Collection<GameTable> getTables() {
+        return tables.values();
+    }
+
+    public Optional<GameTable> getTable(int tableId) {
+        return Optional.ofNullable(tables.get(tableId));
+    }
+
+    public Optional<GameState> getTableState(int tableId) {
+        return getTable(tableId).map(table -> {
+            GameRound round = table.getCurrentRound();
+            if (round == null) {
+                return GameState.builder()
+                        .tableId(tableId)
+                        .bettingOpen(false)
+                        .timeRemaining(0L)
+                        .phase("NO_ACTIVE_ROUND")
+                        .build();
+            }
+            boolean bettingOpen = round.getStatus() == GameRound.GameRoundStatus.BETTING_OPEN;
+            return GameState.builder()
+                    .tableId(tableId)
+                    .currentRoundId(round.getId())
+                    .timeRemaining(table.getRemainingTime())
+                    .bettingOpen(bettingOpen)
+                    .phase(round.getStatus().name())
+                    .bettingClosesAt(bettingOpen ? table.getBettingClosesAt() : null)
+                    .serverTime(System.currentTimeMillis())
+                    .build();
+        });
+    }
+
     public Optional<GameRound> getCurrentRound() {
-        return Optional.ofNullable(currentRound);
+        return getTable(GameRound.DEFAULT_TABLE_ID).map(GameTable::getCurrentRound);
+    }
+
+    public long getBettingClosesAt() {
+        return getTable(GameRound.DEFAULT_TABLE_ID).map(GameTable::getBettingClosesAt).orElse(0L);
     }
-    
+
     public long getRemainingTime() {
-        if (currentRound == null || roundStartTime == null) {
-            return 0;
-        }
-        
-        long secondsElapsed = ChronoUnit.SECONDS.between(roundStartTime, LocalDateTime.now());
-        return Math.max(0, BETTING_DURATION_SECONDS - secondsElapsed);
+        return getTable(GameRound.DEFAULT_TABLE_ID).map(GameTable::getRemainingTime).orElse(0L);
+    }
+
+    private enum RoundEvent {
+        OPEN, CLOSE, DRAW
     }
 }
@@ -1,22 +1,30 @@
 package com.bettinggame.service;
 
+import com.bettinggame.audit.BetAuditLog;
 import com.bettinggame.dto.BetRequest;
 import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.RoundExposure;
+import com.bettinggame.journal.BetStore;
 import com.bettinggame.model.Bet;
 import com.bettinggame.model.GameRound;
 import com.bettinggame.model.Player;
 import com.bettinggame.repository.BetRepository;
 import com.bettinggame.repository.GameRoundRepository;
+import com.bettinggame.rng.RandomNumberProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -26,118 +34,384 @@ public class GameService {
     private final GameRoundRepository gameRoundRepository;
     private final BetRepository betRepository;
     private final PlayerService playerService;
-    private final Random random = new Random();
+    private final RandomNumberProvider randomNumberProvider;
+    private final BetStore betStore;
+    private final LeaderboardService leaderboardService;
+    private final GameMetrics gameMetrics;
     
-    private static final BigDecimal WIN_MULTIPLIER = BigDecimal.valueOf(9.9);
+    // Bet book of the round currently accepting bets on each table; replaced whenever the table starts a new round
+    private final ConcurrentHashMap<Integer, RoundBetBook> openBooks = new ConcurrentHashMap<>();
     
     @Transactional
     public GameRound createNewRound() {
-        log.info("Creating new game round");
-        
+        return createNewRound(GameRound.DEFAULT_TABLE_ID);
+    }
+    
+    @Transactional
+    public GameRound createNewRound(int tableId) {
         GameRound gameRound = GameRound.builder()
+                .tableId(tableId)
                 .status(GameRound.GameRoundStatus.BETTING_OPEN)
                 .build();
         
         GameRound savedRound = gameRoundRepository.save(gameRound);
-        log.info("New game round created with ID: {}", savedRound.getId());
+        log.debug("New game round {} created for table {}", savedRound.getId(), tableId);
+        openBooks.put(tableId, new RoundBetBook(savedRound));
         return savedRound;
     }
     
     public Optional<GameRound> getCurrentActiveRound() {
-        return gameRoundRepository.findCurrentActiveRound();
+        return getCurrentActiveRound(GameRound.DEFAULT_TABLE_ID);
+    }
+    
+    /**
+     * The table's round open for betting. Comes from the open bet book when this instance
+     * runs the table, so only a restarted or non-scheduling instance reads the database.
+     */
+    public Optional<GameRound> getCurrentActiveRound(int tableId) {
+        RoundBetBook book = openBooks.get(tableId);
+        if (book != null) {
+            return book.isOpen() ? Optional.of(book.getRound()) : Optional.empty();
+        }
+        return gameRoundRepository.findFirstByTableIdAndStatusOrderByStartTimeDesc(
+                tableId, GameRound.GameRoundStatus.BETTING_OPEN);
+    }
+    
+    public Optional<RoundBetBook> getOpenBook() {
+        return getOpenBook(GameRound.DEFAULT_TABLE_ID);
+    }
+    
+    public Optional<RoundBetBook> getOpenBook(int tableId) {
+        return Optional.ofNullable(openBooks.get(tableId));
+    }
+    
+    public Optional<RoundExposure> getExposure() {
+        return getExposure(GameRound.DEFAULT_TABLE_ID);
+    }
+    
+    public Optional<RoundExposure> getExposure(int tableId) {
+        RoundBetBook book = openBooks.get(tableId);
+        if (book == null) {
+            return Optional.empty();
+        }
+        
+        StakeExposure exposure = book.getExposure();
+        long[] stakeCents = new long[GameRules.NUMBERS];
+        long[] liabilityCents = new long[GameRules.NUMBERS];
+        long maxLiabilityCents = 0;
+        for (int number = GameRules.MIN_NUMBER; number <= GameRules.MAX_NUMBER; number++) {
+            stakeCents[number - GameRules.MIN_NUMBER] = exposure.stakeCents(number);
+            liabilityCents[number - GameRules.MIN_NUMBER] = exposure.liabilityCents(number, GameRules.WIN_MULTIPLIER_HUNDREDTHS);
+            maxLiabilityCents = Math.max(maxLiabilityCents, liabilityCents[number - GameRules.MIN_NUMBER]);
+        }
+        
+        return Optional.of(RoundExposure.builder()
+                .roundId(book.getRoundId())
+                .betCount(book.size())
+                .totalStakeCents(exposure.totalStakeCents())
+                .stakeCents(stakeCents)
+                .liabilityCents(liabilityCents)
+                .maxLiabilityCents(maxLiabilityCents)
+                .build());
     }
     
     @Transactional
     public Bet placeBet(BetRequest betRequest) {
-        log.info("Placing bet for player: {} on number: {} with amount: {}", 
-                betRequest.getNickname(), betRequest.getBetNumber(), betRequest.getBetAmount());
+        return placeBet(GameRound.DEFAULT_TABLE_ID, betRequest);
+    }
+    
+    @Transactional
+    public Bet placeBet(int tableId, BetRequest betRequest) {
+        long startNanos = System.nanoTime();
         
-        Player player = playerService.getPlayerByNickname(betRequest.getNickname());
-        GameRound currentRound = getCurrentActiveRound()
-                .orElseThrow(() -> new IllegalStateException("No active game round available"));
+        RoundBetBook book = openBooks.get(tableId);
+        if (book == null || !book.isOpen()) {
+            throw rejected(startNanos, tableId, betRequest, GameMetrics.NO_OPEN_ROUND,
+                    new IllegalStateException("No active game round available"));
+        }
         
-        // Check if player has sufficient balance
-        if (player.getBalance().compareTo(betRequest.getBetAmount()) < 0) {
-            throw new IllegalArgumentException("Insufficient balance");
+        Player player;
+        try {
+            player = playerService.getPlayerByNickname(betRequest.getNickname());
+        } catch (IllegalArgumentException e) {
+            throw rejected(startNanos, tableId, betRequest, GameMetrics.UNKNOWN_PLAYER, e);
         }
         
         // Check if player already placed a bet in this round
-        Optional<Bet> existingBet = betRepository.findByGameRoundIdAndPlayerId(
-                currentRound.getId(), player.getId());
-        if (existingBet.isPresent()) {
-            throw new IllegalArgumentException("Player already placed a bet in this round");
+        if (book.hasBet(player.getId())) {
+            throw rejected(startNanos, tableId, betRequest, GameMetrics.DUPLICATE,
+                    new IllegalArgumentException("Player already placed a bet in this round"));
         }
         
-        // Deduct bet amount from player balance
-        player.deductBet(betRequest.getBetAmount());
-        playerService.updatePlayer(player);
-        
         Bet bet = Bet.builder()
                 .player(player)
-                .gameRound(currentRound)
+                .gameRound(book.getRound())
                 .betNumber(betRequest.getBetNumber())
                 .betAmount(betRequest.getBetAmount())
                 .build();
         
-        Bet savedBet = betRepository.save(bet);
-        log.info("Bet placed successfully with ID: {}", savedBet.getId());
+        boolean recorded;
+        try {
+            recorded = book.record(player.getId(), bet);
+        } catch (IllegalStateException e) {
+            // Closed between the check above and now
+            throw rejected(startNanos, tableId, betRequest, GameMetrics.NO_OPEN_ROUND, e);
+        }
+        if (!recorded) {
+            throw rejected(startNanos, tableId, betRequest, GameMetrics.DUPLICATE,
+                    new IllegalArgumentException("Player already placed a bet in this round"));
+        }
+        
+        // Debit the in-memory ledger; the balance reaches the database with the next ledger flush
+        if (!playerService.tryDebit(player, betRequest.getBetAmount())) {
+            book.discard(player.getId(), bet);
+            throw rejected(startNanos, tableId, betRequest, GameMetrics.INSUFFICIENT_BALANCE,
+                    new IllegalArgumentException("Insufficient balance"));
+        }
+        
+        Bet savedBet;
+        try {
+            savedBet = betStore.store(bet);
+        } catch (RuntimeException e) {
+            book.discard(player.getId(), bet);
+            playerService.refund(player, betRequest.getBetAmount());
+            // The book only sees this instance's bets; the unique constraint covers the rest
+            if (e instanceof DataIntegrityViolationException violation && isDuplicateBet(violation)) {
+                throw rejected(startNanos, tableId, betRequest, GameMetrics.DUPLICATE,
+                        new IllegalArgumentException("Player already placed a bet in this round"));
+            }
+            throw rejected(startNanos, tableId, betRequest, GameMetrics.STORE_FAILURE, e);
+        }
+        releaseOnCompletion(book, player, bet);
+        gameMetrics.betAccepted(startNanos);
+        BetAuditLog.betAccepted(tableId, savedBet);
         return savedBet;
     }
     
+    private RuntimeException rejected(long startNanos, int tableId, BetRequest betRequest, String reason, RuntimeException e) {
+        gameMetrics.betRejected(startNanos, reason);
+        BetAuditLog.betRejected(tableId, betRequest, reason);
+        return e;
+    }
+    
+    private static boolean isDuplicateBet(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Bet.ROUND_PLAYER_CONSTRAINT);
+    }
+    
+    // The bet stays in the book, and the stake debited, only if the surrounding transaction commits
+    private void releaseOnCompletion(RoundBetBook book, Player player, Bet bet) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (!book.confirm(player.getId(), bet)) {
+                undoLateBet(book, player, bet);
+                throw new IllegalStateException("No active game round available");
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    if (!book.confirm(player.getId(), bet)) {
+                        undoLateBet(book, player, bet);
+                    }
+                } else {
+                    book.discard(player.getId(), bet);
+                    playerService.refund(player, bet.getBetAmount());
+                }
+            }
+        });
+    }
+    
+    // The round was closed without this bet, so settlement won't pay it; take it back out and refund
+    private void undoLateBet(RoundBetBook book, Player player, Bet bet) {
+        log.warn("Bet of player {} on round {} was stored after betting closed; refunding it",
+                player.getNickname(), book.getRoundId());
+        betStore.awaitPersisted();
+        betRepository.deleteByGameRoundIdAndPlayerId(book.getRoundId(), player.getId());
+        playerService.refund(player, bet.getBetAmount());
+    }
+    
     @Transactional
     public GameRoundResult completeRound(GameRound gameRound) {
-        log.info("Completing game round: {}", gameRound.getId());
-        
-        // Generate winning number
-        int winningNumber = random.nextInt(10) + 1;
-        gameRound.setWinningNumber(winningNumber);
+        return completeRound(gameRound, takeBets(gameRound));
+    }
+    
+    @Transactional
+    public GameRoundResult completeRound(GameRound gameRound, Collection<Bet> allBets) {
+        drawRound(gameRound);
+        return settle(gameRound, allBets);
+    }
+    
+    @Transactional
+    public GameRound drawRound(GameRound gameRound) {
+        long rngStartNanos = System.nanoTime();
+        gameRound.setWinningNumber(drawWinningNumber());
+        gameMetrics.winningNumberDrawn(rngStartNanos);
         gameRound.setStatus(GameRound.GameRoundStatus.COMPLETED);
         gameRound.setEndTime(LocalDateTime.now());
+        gameRound.setSettlementStatus(GameRound.SettlementStatus.PENDING);
         
-        gameRoundRepository.save(gameRound);
+        GameRound saved = gameRoundRepository.save(gameRound);
+        auditOnCommit(gameRound);
+        return saved;
+    }
+    
+    // A draw that rolls back is drawn again, so only the committed number goes to the audit log
+    private static void auditOnCommit(GameRound gameRound) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            BetAuditLog.roundDrawn(gameRound);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                BetAuditLog.roundDrawn(gameRound);
+            }
+        });
+    }
+    
+    /**
+     * Loads the stored state of a round, e.g. to check whether a draw actually committed.
+     */
+    public GameRound getRound(Long gameRoundId) {
+        return gameRoundRepository.findById(gameRoundId)
+                .orElseThrow(() -> new IllegalStateException("Round " + gameRoundId + " not found"));
+    }
+    
+    /**
+     * Pays out a round whose winning number has already been drawn.
+     */
+    @Transactional
+    public GameRoundResult settleRound(GameRound gameRound) {
+        if (gameRound.getWinningNumber() == null) {
+            throw new IllegalStateException("Round " + gameRound.getId() + " has not been drawn");
+        }
+        return settle(gameRound, takeBets(gameRound));
+    }
+    
+    /**
+     * Detaches the bets of a closed round: from its book while the table still holds it,
+     * otherwise from the database. Take them before the table opens its next round so
+     * settlement can run from memory while that round accepts bets.
+     */
+    public Collection<Bet> takeBets(GameRound gameRound) {
+        RoundBetBook book = openBooks.get(gameRound.getTableId());
+        if (book != null && book.getRoundId().equals(gameRound.getId())) {
+            openBooks.remove(gameRound.getTableId(), book);
+            return book.close();
+        }
+        betStore.awaitPersisted();
+        return betRepository.findByGameRoundIdWithPlayer(gameRound.getId());
+    }
+    
+    private GameRoundResult settle(GameRound gameRound, Collection<Bet> allBets) {
+        if (!settleWinningBets(gameRound)) {
+            log.warn("Game round {} is already settled or being settled", gameRound.getId());
+            return buildResult(gameRound, List.of());
+        }
+        List<Bet> winningBets = payWinners(gameRound, allBets);
+        if (!winningBets.isEmpty()) {
+            leaderboardService.update(winningBets.stream().map(Bet::getPlayer).toList());
+        }
+        updateSettlementStatus(gameRound, GameRound.SettlementStatus.SETTLED);
         
-        // Process winning bets
-        List<Bet> allBets = betRepository.findByGameRoundId(gameRound.getId());
-        List<Bet> winningBets = allBets.stream()
-                .filter(bet -> bet.getBetNumber().equals(winningNumber))
-                .toList();
+        log.debug("Game round {} completed. Winning number: {}, Winners: {}",
+                gameRound.getId(), gameRound.getWinningNumber(), winningBets.size());
         
-        // Calculate and distribute winnings
+        return buildResult(gameRound, winningBets);
+    }
+    
+    /**
+     * Claims a drawn round for payout and marks its winning bets with one set-based update.
+     * Returns {@code false} without touching the bets when the round is already settled or
+     * another settler holds it, so winners are credited at most once.
+     */
+    @Transactional
+    public boolean settleWinningBets(GameRound gameRound) {
+        int claimed = gameRoundRepository.claimSettlement(gameRound.getId(), GameRound.SettlementStatus.PAYING,
+                List.of(GameRound.SettlementStatus.PENDING, GameRound.SettlementStatus.FAILED));
+        if (claimed == 0) {
+            return false;
+        }
+        betStore.awaitPersisted();
+        betRepository.settleWinningBets(gameRound.getId(), gameRound.getWinningNumber(), GameRules.WIN_MULTIPLIER);
+        gameRound.setSettlementStatus(GameRound.SettlementStatus.PAYING);
+        return true;
+    }
+    
+    @Transactional
+    public void updateSettlementStatus(GameRound gameRound, GameRound.SettlementStatus status) {
+        gameRoundRepository.updateSettlementStatus(gameRound.getId(), status);
+        gameRound.setSettlementStatus(status);
+    }
+    
+    /**
+     * Drawn rounds that ended before {@code endedBefore} and are not fully paid: waiting for
+     * payout, failed before it, or cut off during it.
+     */
+    public List<GameRound> findUnsettledRounds(LocalDateTime endedBefore) {
+        return gameRoundRepository.findBySettlementStatusInAndEndTimeBeforeOrderById(
+                List.of(GameRound.SettlementStatus.PENDING, GameRound.SettlementStatus.FAILED,
+                        GameRound.SettlementStatus.PAYING), endedBefore);
+    }
+    
+    /**
+     * Winning bets of a round cut off while {@code PAYING} that have not been credited. Pending
+     * ledger changes are flushed first, since that flush is what marks a credited bet paid.
+     */
+    public List<Bet> takeUnpaidWinningBets(GameRound gameRound) {
+        playerService.flushBalances();
+        return betRepository.findUnpaidWinningBetsWithPlayer(gameRound.getId());
+    }
+    
+    /**
+     * Credits the unpaid winners among {@code bets} through the balance ledger and returns their bets.
+     */
+    public List<Bet> payWinners(GameRound gameRound, Collection<Bet> bets) {
+        int winningNumber = gameRound.getWinningNumber();
+        List<Bet> winningBets = bets.stream()
+                .filter(bet -> bet.getBetNumber().equals(winningNumber) && !Boolean.TRUE.equals(bet.getPaid()))
+                .toList();
         for (Bet winningBet : winningBets) {
-            BigDecimal winnings = winningBet.getBetAmount().multiply(WIN_MULTIPLIER);
-            winningBet.setWinnings(winnings);
+            winningBet.setWinnings(winningBet.getBetAmount().multiply(GameRules.WIN_MULTIPLIER));
             winningBet.setIsWinner(true);
-            
-            Player player = winningBet.getPlayer();
-            player.addWinnings(winnings);
-            playerService.updatePlayer(player);
-            
-            betRepository.save(winningBet);
+            playerService.creditWinnings(winningBet.getPlayer(), winningBet.getWinnings(), gameRound.getId());
+        }
+        return winningBets;
+    }
+    
+    public GameRoundResult buildResult(GameRound gameRound, List<Bet> winningBets) {
+        GameRoundResult.WinnerInfo[] winners = new GameRoundResult.WinnerInfo[winningBets.size()];
+        for (int i = 0; i < winners.length; i++) {
+            Bet bet = winningBets.get(i);
+            winners[i] = GameRoundResult.WinnerInfo.builder()
+                    .nickname(bet.getPlayer().getNickname())
+                    .winnings(bet.getWinnings())
+                    .build();
         }
-        
-        log.info("Game round {} completed. Winning number: {}, Winners: {}", 
-                gameRound.getId(), winningNumber, winningBets.size());
-        
-        // Create result DTO
-        GameRoundResult.WinnerInfo[] winners = winningBets.stream()
-                .map(bet -> GameRoundResult.WinnerInfo.builder()
-                        .nickname(bet.getPlayer().getNickname())
-                        .winnings(bet.getWinnings())
-                        .build())
-                .toArray(GameRoundResult.WinnerInfo[]::new);
         
         return GameRoundResult.builder()
                 .roundId(gameRound.getId())
-                .winningNumber(winningNumber)
+                .winningNumber(gameRound.getWinningNumber())
                 .endTime(gameRound.getEndTime())
                 .winners(winners)
                 .build();
     }
     
+    public int drawWinningNumber() {
+        return randomNumberProvider.nextInt(GameRules.NUMBERS) + GameRules.MIN_NUMBER;
+    }
+    
     @Transactional
     public void closeBetting(GameRound gameRound) {
-        log.info("Closing betting for round: {}", gameRound.getId());
+        log.debug("Closing betting for round: {}", gameRound.getId());
         gameRound.setStatus(GameRound.GameRoundStatus.BETTING_CLOSED);
         gameRoundRepository.save(gameRound);
+        
+        RoundBetBook book = openBooks.get(gameRound.getTableId());
+        if (book != null && book.getRoundId().equals(gameRound.getId())) {
+            book.close();
+        }
     }
 }
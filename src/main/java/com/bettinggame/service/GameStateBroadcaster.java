@@ -0,0 +1,124 @@
+package com.bettinggame.service;
+
+import com.bettinggame.config.CborMessageConverter;
+import com.bettinggame.config.PayloadFormatInterceptor;
+import com.bettinggame.dto.GameState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcast stage for messages pushed to every subscriber.
+ * <p>
+ * Payloads are serialized to JSON once and sent as raw bytes, so the broker only frames
+ * the same body for each session. A game state whose round and phase haven't changed since
+ * the last one sent to its destination is dropped.
+ * <p>
+ * Topic messages also go out as CBOR on {@code /topic/cbor/...} while a native WebSocket client
+ * is subscribed there (see {@link PayloadFormatInterceptor}); they are framed as
+ * {@code application/octet-stream} because that is the content type Spring writes as binary
+ * WebSocket frames.
+ * <p>
+ * Each send is timed as {@code game.broadcast}, tagged with the last segment of the
+ * destination ({@code game-state}, {@code round-draw}, {@code settlement}, ...) so tables
+ * and users don't multiply the series.
+ */
+@Service
+@Slf4j
+public class GameStateBroadcaster {
+    
+    public static final String GAME_STATE_TOPIC = "/topic/game-state";
+    
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final PayloadFormatInterceptor payloadFormats;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, GameState> lastSentStates = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sendTimers = new ConcurrentHashMap<>();
+    
+    public GameStateBroadcaster(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                                CborMessageConverter cborMessageConverter, PayloadFormatInterceptor payloadFormats,
+                                MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborMessageConverter.getObjectMapper();
+        this.payloadFormats = payloadFormats;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public void publishState(GameState state) {
+        publishState(GAME_STATE_TOPIC, state);
+    }
+    
+    public void publishState(String destination, GameState state) {
+        if (isSameEvent(state, lastSentStates.put(destination, state))) {
+            return;
+        }
+        send(destination, state);
+    }
+    
+    public void send(String destination, Object payload) {
+        long startNanos = System.nanoTime();
+        send(destination, payload, objectMapper, MimeTypeUtils.APPLICATION_JSON);
+        String binaryDestination = PayloadFormatInterceptor.binaryDestination(destination);
+        if (binaryDestination != null && payloadFormats.hasSubscribers(binaryDestination)) {
+            send(binaryDestination, payload, cborMapper, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        }
+        sendTimer(destination).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Sends to one user's sessions, e.g. {@code /user/{nickname}/queue/settlement}. Users are
+     * identified by the nickname given when connecting.
+     */
+    public void sendToUser(String user, String destination, Object payload) {
+        send(messagingTemplate.getUserDestinationPrefix() + user.replace("/", "%2F") + destination, payload);
+    }
+    
+    private void send(String destination, Object payload, ObjectMapper mapper, MimeType contentType) {
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize message for {}", destination, e);
+            return;
+        }
+        
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+    
+    private Timer sendTimer(String destination) {
+        String messageType = destination.substring(destination.lastIndexOf('/') + 1);
+        return sendTimers.computeIfAbsent(messageType, type -> Timer.builder("game.broadcast")
+                .description("Time to serialize a message and hand it to the broker")
+                .tag("message", type)
+                .register(meterRegistry));
+    }
+    
+    private boolean isSameEvent(GameState state, GameState previous) {
+        return previous != null
+                && Objects.equals(state.getCurrentRoundId(), previous.getCurrentRoundId())
+                && Objects.equals(state.getPhase(), previous.getPhase());
+    }
+}
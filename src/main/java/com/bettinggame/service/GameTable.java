@@ -0,0 +1,100 @@
+package com.bettinggame.service;
+
+import com.bettinggame.model.GameRound;
+
+/**
+ * One independent game table: its current round, betting deadline and broadcast topics.
+ * A table is only ever driven by one scheduler thread; the volatile fields let request
+ * threads read its state.
+ */
+public class GameTable {
+
+    private final int id;
+    private final String stateTopic;
+    private final String drawTopic;
+    private final String resultsTopic;
+    private final String exposureTopic;
+
+    private volatile GameRound currentRound;
+    private volatile long bettingClosesAt; // epoch millis
+    private long lastBroadcastStakeCents = -1;
+    private long maxSkewNanos;
+
+    public GameTable(int id) {
+        this.id = id;
+        this.stateTopic = "/topic/tables/" + id + "/game-state";
+        this.drawTopic = "/topic/tables/" + id + "/round-draw";
+        this.resultsTopic = "/topic/tables/" + id + "/round-results";
+        this.exposureTopic = "/topic/tables/" + id + "/exposure";
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // The default table also serves the original single-game topics and endpoints
+    public boolean isDefault() {
+        return id == GameRound.DEFAULT_TABLE_ID;
+    }
+
+    public String getStateTopic() {
+        return stateTopic;
+    }
+
+    public String getDrawTopic() {
+        return drawTopic;
+    }
+
+    public String getResultsTopic() {
+        return resultsTopic;
+    }
+
+    public String getExposureTopic() {
+        return exposureTopic;
+    }
+
+    public GameRound getCurrentRound() {
+        return currentRound;
+    }
+
+    void startRound(GameRound round, long bettingClosesAt) {
+        this.currentRound = round;
+        this.bettingClosesAt = bettingClosesAt;
+        this.lastBroadcastStakeCents = -1;
+        this.maxSkewNanos = 0;
+    }
+
+    // Swaps in the committed state of the current round once it is drawn
+    void roundDrawn(GameRound round) {
+        this.currentRound = round;
+    }
+
+    public long getBettingClosesAt() {
+        return bettingClosesAt;
+    }
+
+    long getLastBroadcastStakeCents() {
+        return lastBroadcastStakeCents;
+    }
+
+    void setLastBroadcastStakeCents(long lastBroadcastStakeCents) {
+        this.lastBroadcastStakeCents = lastBroadcastStakeCents;
+    }
+
+    // Largest lateness of any phase change in the current round
+    long getMaxSkewNanos() {
+        return maxSkewNanos;
+    }
+
+    void recordSkew(long skewNanos) {
+        this.maxSkewNanos = Math.max(maxSkewNanos, skewNanos);
+    }
+
+    public long getRemainingTime() {
+        if (currentRound == null) {
+            return 0;
+        }
+        long millisRemaining = bettingClosesAt - System.currentTimeMillis();
+        return Math.max(0, (millisRemaining + 999) / 1000);
+    }
+}
@@ -0,0 +1,184 @@
+package com.bettinggame.service;
+
+import com.bettinggame.dto.LeaderboardEntry;
+import com.bettinggame.dto.LeaderboardPage;
+import com.bettinggame.dto.PlayerStanding;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.PlayerRepository;
+import com.bettinggame.util.Cents;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Top-K players by total winnings, kept in memory and updated as rounds credit winners.
+ * <p>
+ * Total winnings only ever grow, so a player outside the top K can only enter it through
+ * an update this service sees; the bounded set is therefore exact. Writers update a sorted
+ * set under a lock and publish an immutable ranked snapshot, so rank and page queries are
+ * plain array slices.
+ */
+@Service
+@Slf4j
+public class LeaderboardService implements SmartLifecycle {
+
+    public static final String LEADERBOARD_TOPIC = "/topic/leaderboard";
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry entry) -> entry.totalWinningsCents).reversed()
+            .thenComparingLong(entry -> entry.playerId);
+
+    private final PlayerRepository playerRepository;
+    private final GameStateBroadcaster broadcaster;
+    private final int capacity;
+    private final int broadcastSize;
+
+    private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private volatile Entry[] snapshot = new Entry[0];
+    private volatile boolean running;
+
+    public LeaderboardService(PlayerRepository playerRepository,
+                              GameStateBroadcaster broadcaster,
+                              @Value("${app.leaderboard.capacity:1000}") int capacity,
+                              @Value("${app.leaderboard.broadcast-size:10}") int broadcastSize) {
+        this.playerRepository = playerRepository;
+        this.broadcaster = broadcaster;
+        this.capacity = capacity;
+        this.broadcastSize = broadcastSize;
+    }
+
+    @Override
+    public void start() {
+        List<PlayerStanding> leaders = playerRepository.findTopWinners(PageRequest.of(0, capacity));
+        synchronized (this) {
+            leaders.forEach(leader -> offer(leader.getId(), leader.getNickname(), leader.getTotalWinnings()));
+            publishSnapshot();
+        }
+        running = true;
+        log.info("Leaderboard loaded with {} player(s)", leaders.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the balance ledger has replayed its journal, before rounds start
+    @Override
+    public int getPhase() {
+        return 1;
+    }
+
+    /**
+     * Applies the new total winnings of the given players and pushes the top of the board
+     * to {@link #LEADERBOARD_TOPIC} if it changed.
+     */
+    public void update(Collection<Player> players) {
+        boolean changed = false;
+        Entry[] top;
+        synchronized (this) {
+            for (Player player : players) {
+                changed |= offer(player.getId(), player.getNickname(), player.getTotalWinnings());
+            }
+            if (!changed) {
+                return;
+            }
+            publishSnapshot();
+            top = snapshot;
+        }
+        if (topChanged(top, players)) {
+            broadcaster.send(LEADERBOARD_TOPIC, toEntries(top, 0, Math.min(broadcastSize, top.length)));
+        }
+    }
+
+    public List<LeaderboardEntry> top(int limit) {
+        Entry[] current = snapshot;
+        return toEntries(current, 0, Math.min(Math.max(limit, 0), current.length));
+    }
+
+    public LeaderboardPage page(int page, int size) {
+        Entry[] current = snapshot;
+        int from = (int) Math.min((long) page * size, current.length);
+        int to = Math.min(from + size, current.length);
+        return LeaderboardPage.builder()
+                .page(page)
+                .size(size)
+                .totalEntries(current.length)
+                .entries(toEntries(current, from, to))
+                .build();
+    }
+
+    private boolean offer(long playerId, String nickname, BigDecimal totalWinnings) {
+        long totalWinningsCents = Cents.of(totalWinnings);
+        if (totalWinningsCents <= 0) {
+            return false;
+        }
+        Entry existing = entries.get(playerId);
+        if (existing != null) {
+            if (existing.totalWinningsCents >= totalWinningsCents) {
+                return false;
+            }
+            ranking.remove(existing);
+        } else if (ranking.size() >= capacity && RANKING.compare(
+                new Entry(playerId, nickname, totalWinningsCents), ranking.last()) > 0) {
+            return false;
+        }
+
+        Entry entry = new Entry(playerId, nickname, totalWinningsCents);
+        ranking.add(entry);
+        entries.put(entry.playerId, entry);
+        if (ranking.size() > capacity) {
+            entries.remove(ranking.pollLast().playerId);
+        }
+        return true;
+    }
+
+    private void publishSnapshot() {
+        snapshot = ranking.toArray(new Entry[0]);
+    }
+
+    // Only the broadcast slice matters to subscribers
+    private boolean topChanged(Entry[] top, Collection<Player> players) {
+        int shown = Math.min(broadcastSize, top.length);
+        for (int i = 0; i < shown; i++) {
+            for (Player player : players) {
+                if (top[i].playerId == player.getId()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<LeaderboardEntry> toEntries(Entry[] source, int from, int to) {
+        List<LeaderboardEntry> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(LeaderboardEntry.builder()
+                    .rank(i + 1)
+                    .nickname(source[i].nickname)
+                    .totalWinnings(Cents.toAmount(source[i].totalWinningsCents))
+                    .build());
+        }
+        return result;
+    }
+
+    private record Entry(long playerId, String nickname, long totalWinningsCents) {
+    }
+}
@@ -1,13 +1,17 @@
 package com.bettinggame.service;
 
 import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.ledger.BalanceLedger;
 import com.bettinggame.model.Player;
 import com.bettinggame.repository.PlayerRepository;
+import com.bettinggame.util.Cents;
+import com.github.benmanes.caffeine.cache.Cache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +21,10 @@ import java.util.Optional;
 public class PlayerService {
     
     private final PlayerRepository playerRepository;
+    private final BalanceLedger balanceLedger;
+    
+    // Detached players by nickname; balances are overlaid from the ledger on every read, so a cached entry is never stale
+    private final Cache<String, Player> playerCache;
     
     @Transactional
     public Player registerPlayer(PlayerRegistrationRequest request) {
@@ -32,12 +40,25 @@ public class PlayerService {
                 .build();
         
         Player savedPlayer = playerRepository.save(player);
+        playerCache.invalidate(savedPlayer.getNickname());
         log.info("Player registered successfully: {}", savedPlayer.getNickname());
         return savedPlayer;
     }
     
     public Optional<Player> findByNickname(String nickname) {
-        return playerRepository.findByNickname(nickname);
+        // Loaded outside the cache: a loader runs under a map lock, and waiting there for a
+        // pooled connection can deadlock with transactions that hold one and need the lock
+        Player player = playerCache.getIfPresent(nickname);
+        if (player == null) {
+            player = playerRepository.findByNickname(nickname).orElse(null);
+            if (player != null) {
+                player = playerCache.asMap().merge(nickname, player, (cached, loaded) -> cached);
+            }
+        }
+        if (player != null) {
+            balanceLedger.applyTo(player);
+        }
+        return Optional.ofNullable(player);
     }
     
     public Player getPlayerByNickname(String nickname) {
@@ -45,12 +66,35 @@ public class PlayerService {
                 .orElseThrow(() -> new IllegalArgumentException("Player not found: " + nickname));
     }
     
-    public List<Player> getTopWinners() {
-        return playerRepository.findTopWinners();
-    }
-    
     @Transactional
     public Player updatePlayer(Player player) {
-        return playerRepository.save(player);
+        Player savedPlayer = playerRepository.save(player);
+        playerCache.invalidate(savedPlayer.getNickname());
+        return savedPlayer;
+    }
+    
+    public boolean tryDebit(Player player, BigDecimal amount) {
+        boolean debited = balanceLedger.tryDebit(player, Cents.of(amount));
+        if (debited) {
+            balanceLedger.applyTo(player);
+        }
+        return debited;
+    }
+    
+    public void refund(Player player, BigDecimal amount) {
+        balanceLedger.credit(player, Cents.of(amount));
+        balanceLedger.applyTo(player);
+    }
+    
+    public void creditWinnings(Player player, BigDecimal winnings, Long gameRoundId) {
+        balanceLedger.creditWinnings(player, Cents.of(winnings), gameRoundId);
+        balanceLedger.applyTo(player);
+    }
+    
+    /**
+     * Writes pending balance changes, and the paid marks of the payouts among them, to the database.
+     */
+    public void flushBalances() {
+        balanceLedger.flush();
     }
 }
@@ -0,0 +1,129 @@
+package com.bettinggame.service;
+
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.util.Cents;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory book of the bets accepted for a single round, keyed by player id.
+ * <p>
+ * While the round is open the book answers "is betting open" and "has this player
+ * already bet" without touching the database, and tracks the live stake per number.
+ * Closing the book waits for bets that are still being persisted and hands the
+ * collected bets to settlement. A bet still in flight when that wait times out is left out
+ * of settlement, and its late {@link #confirm(Long, Bet)} returns {@code false} so the caller
+ * can undo it instead of leaving a stored bet that is never paid.
+ */
+public class RoundBetBook {
+
+    private static final long CLOSE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final GameRound round;
+    private final ConcurrentHashMap<Long, Bet> bets = new ConcurrentHashMap<>();
+    private final StakeExposure exposure = new StakeExposure();
+    // Recorded bets not yet confirmed or discarded; removing an entry decides its fate once
+    private final ConcurrentHashMap<Long, Bet> inFlight = new ConcurrentHashMap<>();
+    private final long closeTimeoutNanos;
+    private volatile boolean open = true;
+
+    public RoundBetBook(GameRound round) {
+        this(round, CLOSE_TIMEOUT_NANOS);
+    }
+
+    RoundBetBook(GameRound round, long closeTimeoutNanos) {
+        this.round = round;
+        this.closeTimeoutNanos = closeTimeoutNanos;
+    }
+
+    public GameRound getRound() {
+        return round;
+    }
+
+    public Long getRoundId() {
+        return round.getId();
+    }
+
+    public StakeExposure getExposure() {
+        return exposure;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public boolean hasBet(Long playerId) {
+        return bets.containsKey(playerId);
+    }
+
+    public int size() {
+        return bets.size();
+    }
+
+    /**
+     * Records a bet for the player. Returns {@code false} if the player already has a bet
+     * in this round. Every successful call must be followed by {@link #confirm(Long, Bet)} or
+     * {@link #discard(Long, Bet)} once the bet is persisted or rolled back.
+     */
+    public boolean record(Long playerId, Bet bet) {
+        // In flight before the open check, so close() either waits for the bet or refuses it
+        if (inFlight.putIfAbsent(playerId, bet) != null) {
+            return false;
+        }
+        if (!open) {
+            inFlight.remove(playerId, bet);
+            throw new IllegalStateException("No active game round available");
+        }
+        if (bets.putIfAbsent(playerId, bet) != null) {
+            inFlight.remove(playerId, bet);
+            return false;
+        }
+        exposure.add(bet.getBetNumber(), Cents.of(bet.getBetAmount()));
+        return true;
+    }
+
+    /**
+     * Marks a recorded bet as persisted. Returns {@code false} if the book was closed without
+     * it, in which case settlement won't pay it and the caller must undo it.
+     */
+    public boolean confirm(Long playerId, Bet bet) {
+        return inFlight.remove(playerId, bet);
+    }
+
+    public void discard(Long playerId, Bet bet) {
+        inFlight.remove(playerId, bet);
+        if (bets.remove(playerId, bet)) {
+            exposure.subtract(bet.getBetNumber(), Cents.of(bet.getBetAmount()));
+        }
+    }
+
+    /**
+     * Stops accepting bets and returns the collected ones once in-flight bets have been
+     * confirmed or discarded. The wait is bounded by a short timeout so a stuck writer can't
+     * stall the round; bets still in flight then are dropped from the result.
+     */
+    public List<Bet> close() {
+        open = false;
+        long deadline = System.nanoTime() + closeTimeoutNanos;
+        while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (Long playerId : inFlight.keySet()) {
+            Bet late = inFlight.remove(playerId);
+            if (late != null && bets.remove(playerId, late)) {
+                exposure.subtract(late.getBetNumber(), Cents.of(late.getBetAmount()));
+            }
+        }
+        return new ArrayList<>(bets.values());
+    }
+
+    public Collection<Bet> getBets() {
+        return bets.values();
+    }
+}
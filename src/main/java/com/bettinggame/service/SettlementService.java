@@ -0,0 +1,290 @@
+package com.bettinggame.service;
+
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.SettlementNotice;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pays out drawn rounds off the scheduler threads. The scheduler commits and broadcasts the
+ * draw, hands the round's bets here and moves on to the next round; this stage marks the
+ * winning bets, credits winners in batches and pushes each bettor their outcome on
+ * {@code /user/queue/settlement} as their batch is paid.
+ * <p>
+ * Each drawn round carries a settlement status. A round whose winners could not be marked
+ * is left {@code FAILED}, and a sweep every {@code app.settlement.recovery-interval-millis}
+ * (first run at startup) settles {@code PENDING} and {@code FAILED} rounds again from their
+ * stored bets. A round found in {@code PAYING} was cut off while crediting; the balance
+ * ledger marks each bet paid together with its credit, so the sweep pays only the winning
+ * bets that are still unpaid.
+ * <p>
+ * Stopping waits for queued rounds to finish, so payouts reach the balance ledger before it
+ * flushes for the last time.
+ */
+@Service
+@Slf4j
+public class SettlementService implements SmartLifecycle {
+
+    public static final String SETTLEMENT_QUEUE = "/queue/settlement";
+
+    private final GameService gameService;
+    private final LeaderboardService leaderboardService;
+    private final GameStateBroadcaster broadcaster;
+    private final int threads;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long recoveryIntervalMillis;
+
+    private final Timer settlementTimer;
+    private final AtomicInteger pending = new AtomicInteger();
+    // Rounds queued or settling in this instance, so the recovery sweep leaves them alone
+    private final Map<Long, Integer> inProgress = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ScheduledExecutorService recovery;
+    private volatile boolean running;
+
+    public SettlementService(GameService gameService,
+                             LeaderboardService leaderboardService,
+                             GameStateBroadcaster broadcaster,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.settlement.threads:2}") int threads,
+                             @Value("${app.settlement.batch-size:500}") int batchSize,
+                             @Value("${app.settlement.max-attempts:3}") int maxAttempts,
+                             @Value("${app.settlement.retry-delay-millis:500}") long retryDelayMillis,
+                             @Value("${app.settlement.recovery-interval-millis:30000}") long recoveryIntervalMillis) {
+        this.gameService = gameService;
+        this.leaderboardService = leaderboardService;
+        this.broadcaster = broadcaster;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.recoveryIntervalMillis = recoveryIntervalMillis;
+
+        this.settlementTimer = Timer.builder("game.round.settlement")
+                .description("Time from handing a drawn round to the settlement stage until all bets are paid")
+                .register(meterRegistry);
+        Gauge.builder("game.round.settlement.pending", pending, AtomicInteger::get)
+                .description("Drawn rounds waiting for or in settlement")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "settlement-" + threadNumber.incrementAndGet()));
+        recovery = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "settlement-recovery"));
+        running = true;
+        recoverQuietly();
+        recovery.scheduleWithFixedDelay(this::recoverQuietly, recoveryIntervalMillis, recoveryIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        recovery.shutdownNow();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("{} round(s) still settling at shutdown", pending.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the round scheduler that feeds it, before the leaderboard and balance ledger
+    @Override
+    public int getPhase() {
+        return 2;
+    }
+
+    /**
+     * Queues a drawn round for payout. The returned future completes with the round's
+     * result once every winner has been credited, or empty if another settler had already
+     * claimed the round, in which case that settler reports the result.
+     */
+    public CompletableFuture<Optional<GameRoundResult>> submit(int tableId, GameRound round, Collection<Bet> bets) {
+        List<Bet> copy = new ArrayList<>(bets);
+        return enqueue(round, () -> settle(tableId, round, copy));
+    }
+
+    /**
+     * Resubmits drawn rounds that ended more than one recovery interval ago and are still
+     * unpaid, unless this instance is settling them right now. {@code PENDING} and
+     * {@code FAILED} rounds are settled again from their stored bets; a {@code PAYING} round
+     * resumes with the winning bets that were not credited. Returns how many were resubmitted.
+     */
+    int recoverUnsettledRounds() {
+        LocalDateTime endedBefore = LocalDateTime.now().minus(Duration.ofMillis(recoveryIntervalMillis));
+        int recovered = 0;
+        for (GameRound round : gameService.findUnsettledRounds(endedBefore)) {
+            if (inProgress.containsKey(round.getId())) {
+                continue;
+            }
+            if (round.getSettlementStatus() == GameRound.SettlementStatus.PAYING) {
+                log.error("Round {} was drawn at {} and cut off while paying winners; paying the rest",
+                        round.getId(), round.getEndTime());
+                enqueue(round, () -> resume(round.getTableId(), round));
+            } else {
+                log.warn("Round {} was drawn at {} but is still {}; settling it again",
+                        round.getId(), round.getEndTime(), round.getSettlementStatus());
+                submit(round.getTableId(), round, gameService.takeBets(round));
+            }
+            recovered++;
+        }
+        return recovered;
+    }
+
+    private void recoverQuietly() {
+        try {
+            recoverUnsettledRounds();
+        } catch (RuntimeException e) {
+            log.error("Recovering unsettled rounds failed", e);
+        }
+    }
+
+    private CompletableFuture<Optional<GameRoundResult>> enqueue(GameRound round,
+                                                                 Supplier<Optional<GameRoundResult>> settlement) {
+        long startNanos = System.nanoTime();
+        pending.incrementAndGet();
+        inProgress.merge(round.getId(), 1, Integer::sum);
+        try {
+            return CompletableFuture.supplyAsync(settlement, executor)
+                    .whenComplete((result, error) -> {
+                        done(round);
+                        settlementTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                        if (error != null) {
+                            log.error("Settlement of round {} failed: ", round.getId(), error);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            done(round);
+            throw new IllegalStateException("Settlement is not running", e);
+        }
+    }
+
+    private void done(GameRound round) {
+        pending.decrementAndGet();
+        inProgress.computeIfPresent(round.getId(), (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    Optional<GameRoundResult> settle(int tableId, GameRound round, List<Bet> bets) {
+        if (!markWinningBets(round)) {
+            log.warn("Round {} is already settled or being settled, skipping", round.getId());
+            return Optional.empty();
+        }
+        return Optional.of(pay(tableId, round, bets));
+    }
+
+    // Bets credited before the cut-off are marked paid by the ledger flush and left out here
+    Optional<GameRoundResult> resume(int tableId, GameRound round) {
+        return Optional.of(pay(tableId, round, gameService.takeUnpaidWinningBets(round)));
+    }
+
+    private GameRoundResult pay(int tableId, GameRound round, List<Bet> bets) {
+        List<Bet> winningBets = new ArrayList<>();
+        for (int from = 0; from < bets.size(); from += batchSize) {
+            List<Bet> batch = bets.subList(from, Math.min(from + batchSize, bets.size()));
+            winningBets.addAll(gameService.payWinners(round, batch));
+            batch.forEach(bet -> notifyBettor(tableId, round, bet));
+        }
+        gameService.updateSettlementStatus(round, GameRound.SettlementStatus.SETTLED);
+        if (!winningBets.isEmpty()) {
+            leaderboardService.update(winningBets.stream().map(Bet::getPlayer).toList());
+        }
+
+        log.info("Game round {} settled. Winning number: {}, Bets: {}, Winners: {}",
+                round.getId(), round.getWinningNumber(), bets.size(), winningBets.size());
+        return gameService.buildResult(round, winningBets);
+    }
+
+    // Nothing has been credited yet, so this step alone is safe to repeat; once attempts run
+    // out the round is marked FAILED for the recovery sweep
+    private boolean markWinningBets(GameRound round) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return gameService.settleWinningBets(round);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    markFailed(round, e);
+                    throw e;
+                }
+                log.warn("Marking winners of round {} failed (attempt {}/{}), retrying", round.getId(), attempt, maxAttempts, e);
+                try {
+                    Thread.sleep(retryDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    markFailed(round, e);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void markFailed(GameRound round, RuntimeException cause) {
+        try {
+            gameService.updateSettlementStatus(round, GameRound.SettlementStatus.FAILED);
+        } catch (RuntimeException e) {
+            // Still PENDING in that case, which the recovery sweep picks up as well
+            cause.addSuppressed(e);
+        }
+    }
+
+    // The bet is already paid; a lost notice must not fail the rest of the round
+    private void notifyBettor(int tableId, GameRound round, Bet bet) {
+        try {
+            sendNotice(tableId, round, bet);
+        } catch (RuntimeException e) {
+            log.warn("Settlement notice for bet {} of round {} not sent", bet.getId(), round.getId(), e);
+        }
+    }
+
+    private void sendNotice(int tableId, GameRound round, Bet bet) {
+        boolean winner = Boolean.TRUE.equals(bet.getIsWinner());
+        broadcaster.sendToUser(bet.getPlayer().getNickname(), SETTLEMENT_QUEUE, SettlementNotice.builder()
+                .tableId(tableId)
+                .roundId(round.getId())
+                .winningNumber(round.getWinningNumber())
+                .betNumber(bet.getBetNumber())
+                .betAmount(bet.getBetAmount())
+                .winner(winner)
+                .winnings(winner ? bet.getWinnings() : BigDecimal.ZERO)
+                .balance(winner ? bet.getPlayer().getBalance() : null)
+                .build());
+    }
+}
@@ -0,0 +1,47 @@
+package com.bettinggame.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live stake per number (1-10) for an open round, kept in cents.
+ * <p>
+ * Writers only touch a striped {@link LongAdder}, so concurrent bets on the same number
+ * don't contend, and reads sum the stripes without allocating.
+ */
+public class StakeExposure {
+
+    private final LongAdder[] stakeCents = new LongAdder[GameRules.NUMBERS];
+
+    public StakeExposure() {
+        for (int i = 0; i < stakeCents.length; i++) {
+            stakeCents[i] = new LongAdder();
+        }
+    }
+
+    public void add(int number, long cents) {
+        stakeCents[number - GameRules.MIN_NUMBER].add(cents);
+    }
+
+    public void subtract(int number, long cents) {
+        stakeCents[number - GameRules.MIN_NUMBER].add(-cents);
+    }
+
+    public long stakeCents(int number) {
+        return stakeCents[number - GameRules.MIN_NUMBER].sum();
+    }
+
+    /**
+     * Amount the house pays out if {@code number} is drawn, with the multiplier given in hundredths.
+     */
+    public long liabilityCents(int number, long multiplierHundredths) {
+        return stakeCents(number) * multiplierHundredths / 100;
+    }
+
+    public long totalStakeCents() {
+        long total = 0;
+        for (LongAdder adder : stakeCents) {
+            total += adder.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,163 @@
+package com.bettinggame.simulation;
+
+import com.bettinggame.service.GameRules;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo RTP simulation that applies the live payout rules ({@link GameRules}) without
+ * the JPA stack. Rounds are split across a fork-join pool, each task drawing from its own
+ * {@link SplittableRandom} split off its parent, so a given seed always gives the same result.
+ * <p>
+ * Every round draws a winning number and lets each player pick a number uniformly; the
+ * per-round return (payout / stake) feeds the variance and confidence intervals.
+ * <p>
+ * Run from the command line for certification runs:
+ * {@code java -cp <classpath> com.bettinggame.simulation.RtpSimulator [rounds] [playersPerRound] [seed]}
+ */
+@Slf4j
+public class RtpSimulator {
+
+    private static final long ROUNDS_PER_TASK = 1 << 16;
+    private static final double Z_95 = 1.959964;
+    private static final double Z_99 = 2.575829;
+
+    public SimulationReport simulate(SimulationConfig config) {
+        if (config.getRounds() <= 0 || config.getPlayersPerRound() <= 0 || config.getStakeCents() <= 0) {
+            throw new IllegalArgumentException("Rounds, players per round and stake must be positive");
+        }
+
+        long payoutPerWinCents = (config.getStakeCents() * config.getMultiplierHundredths() + 50) / 100;
+        long startTime = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+        Tally tally;
+        try {
+            tally = pool.invoke(new RoundsTask(new SplittableRandom(config.getSeed()), config.getRounds(),
+                    config.getPlayersPerRound(), payoutPerWinCents, config.getStakeCents()));
+        } finally {
+            pool.shutdown();
+        }
+
+        long rounds = config.getRounds();
+        long bets = rounds * config.getPlayersPerRound();
+        long totalStakeCents = bets * config.getStakeCents();
+        double meanReturn = tally.sumReturn / rounds;
+        double variance = rounds > 1
+                ? (tally.sumReturnSquared - rounds * meanReturn * meanReturn) / (rounds - 1)
+                : 0.0;
+        double standardError = Math.sqrt(variance / rounds);
+        double rtp = (double) tally.payoutCents / totalStakeCents;
+
+        return SimulationReport.builder()
+                .rounds(rounds)
+                .bets(bets)
+                .wins(tally.wins)
+                .totalStakeCents(totalStakeCents)
+                .totalPayoutCents(tally.payoutCents)
+                .seed(config.getSeed())
+                .rtp(rtp)
+                .variance(variance)
+                .standardError(standardError)
+                .ci95Low(rtp - Z_95 * standardError)
+                .ci95High(rtp + Z_95 * standardError)
+                .ci99Low(rtp - Z_99 * standardError)
+                .ci99High(rtp + Z_99 * standardError)
+                .durationMillis((System.nanoTime() - startTime) / 1_000_000)
+                .build();
+    }
+
+    public static void main(String[] args) {
+        SimulationConfig.SimulationConfigBuilder config = SimulationConfig.builder();
+        if (args.length > 0) {
+            config.rounds(Long.parseLong(args[0]));
+        }
+        if (args.length > 1) {
+            config.playersPerRound(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            config.seed(Long.parseLong(args[2]));
+        }
+
+        SimulationReport report = new RtpSimulator().simulate(config.build());
+        log.info("=== RTP SIMULATION RESULTS ===");
+        log.info("Rounds: {}, bets: {}, wins: {}, seed: {}",
+                report.getRounds(), report.getBets(), report.getWins(), report.getSeed());
+        log.info("RTP: {}%", String.format("%.4f", report.getRtp() * 100));
+        log.info("95% CI: [{}%, {}%]",
+                String.format("%.4f", report.getCi95Low() * 100), String.format("%.4f", report.getCi95High() * 100));
+        log.info("99% CI: [{}%, {}%]",
+                String.format("%.4f", report.getCi99Low() * 100), String.format("%.4f", report.getCi99High() * 100));
+        log.info("Per-round return variance: {}", String.format("%.6f", report.getVariance()));
+        log.info("Duration: {} ms", report.getDurationMillis());
+    }
+
+    private static final class Tally {
+        long wins;
+        long payoutCents;
+        double sumReturn;
+        double sumReturnSquared;
+
+        Tally add(Tally other) {
+            wins += other.wins;
+            payoutCents += other.payoutCents;
+            sumReturn += other.sumReturn;
+            sumReturnSquared += other.sumReturnSquared;
+            return this;
+        }
+    }
+
+    private static final class RoundsTask extends RecursiveTask<Tally> {
+
+        private final SplittableRandom random;
+        private final long rounds;
+        private final int players;
+        private final long payoutPerWinCents;
+        private final long stakeCents;
+
+        RoundsTask(SplittableRandom random, long rounds, int players, long payoutPerWinCents, long stakeCents) {
+            this.random = random;
+            this.rounds = rounds;
+            this.players = players;
+            this.payoutPerWinCents = payoutPerWinCents;
+            this.stakeCents = stakeCents;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (rounds <= ROUNDS_PER_TASK) {
+                return simulateRounds();
+            }
+            long half = rounds / 2;
+            RoundsTask left = new RoundsTask(random.split(), half, players, payoutPerWinCents, stakeCents);
+            RoundsTask right = new RoundsTask(random.split(), rounds - half, players, payoutPerWinCents, stakeCents);
+            left.fork();
+            Tally rightTally = right.compute();
+            return left.join().add(rightTally);
+        }
+
+        private Tally simulateRounds() {
+            Tally tally = new Tally();
+            double stakePerRound = (double) players * stakeCents;
+            for (long round = 0; round < rounds; round++) {
+                int winningNumber = random.nextInt(GameRules.NUMBERS);
+                int wins = 0;
+                for (int player = 0; player < players; player++) {
+                    if (random.nextInt(GameRules.NUMBERS) == winningNumber) {
+                        wins++;
+                    }
+                }
+                long payout = wins * payoutPerWinCents;
+                double roundReturn = payout / stakePerRound;
+                tally.wins += wins;
+                tally.payoutCents += payout;
+                tally.sumReturn += roundReturn;
+                tally.sumReturnSquared += roundReturn * roundReturn;
+            }
+            return tally;
+        }
+    }
+}
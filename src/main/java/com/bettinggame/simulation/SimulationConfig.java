@@ -0,0 +1,32 @@
+package com.bettinggame.simulation;
+
+import com.bettinggame.service.GameRules;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationConfig {
+    
+    @Builder.Default
+    private long rounds = 100_000_000L;
+    
+    @Builder.Default
+    private int playersPerRound = 10;
+    
+    @Builder.Default
+    private long stakeCents = 10_000L;
+    
+    @Builder.Default
+    private long multiplierHundredths = GameRules.WIN_MULTIPLIER_HUNDREDTHS;
+    
+    @Builder.Default
+    private long seed = System.nanoTime();
+    
+    @Builder.Default
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
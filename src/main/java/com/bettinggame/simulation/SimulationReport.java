@@ -0,0 +1,30 @@
+package com.bettinggame.simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationReport {
+    
+    private long rounds;
+    private long bets;
+    private long wins;
+    private long totalStakeCents;
+    private long totalPayoutCents;
+    private long seed;
+    
+    private double rtp; // total payout / total stake
+    private double variance; // of the per-round return
+    private double standardError;
+    private double ci95Low;
+    private double ci95High;
+    private double ci99Low;
+    private double ci99High;
+    
+    private long durationMillis;
+}
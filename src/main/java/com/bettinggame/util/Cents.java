@@ -0,0 +1,23 @@
+package com.bettinggame.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between {@link BigDecimal} money amounts and fixed-point cents.
+ * Amounts are stored with two decimals (see the {@code scale = 2} columns), so
+ * anything finer is rounded half-up the same way the database would.
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
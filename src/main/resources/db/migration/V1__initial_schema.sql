@@ -0,0 +1,44 @@
+-- Schema as of the first migration-managed release. Indexes follow the hot queries:
+-- bets by round (and player) for placement and settlement, bets by player newest first
+-- for history, rounds by status newest first for the active round.
+
+CREATE TABLE players (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nickname       VARCHAR(255)   NOT NULL,
+    balance        NUMERIC(38, 2) NOT NULL,
+    total_winnings NUMERIC(38, 2) NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT uk_players_nickname UNIQUE (nickname)
+);
+
+CREATE TABLE game_rounds (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    table_id       INTEGER      NOT NULL,
+    winning_number INTEGER,
+    start_time     TIMESTAMP(6) NOT NULL,
+    end_time       TIMESTAMP(6),
+    status         VARCHAR(20)  NOT NULL
+);
+
+CREATE INDEX idx_game_rounds_status_start_time ON game_rounds (status, start_time);
+
+CREATE TABLE bets (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    player_id     BIGINT         NOT NULL,
+    game_round_id BIGINT         NOT NULL,
+    bet_number    INTEGER        NOT NULL,
+    bet_amount    NUMERIC(10, 2) NOT NULL,
+    winnings      NUMERIC(10, 2),
+    is_winner     BOOLEAN        NOT NULL,
+    placed_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT fk_bets_player FOREIGN KEY (player_id) REFERENCES players (id),
+    CONSTRAINT fk_bets_game_round FOREIGN KEY (game_round_id) REFERENCES game_rounds (id),
+    CONSTRAINT uk_bets_round_player UNIQUE (game_round_id, player_id)
+);
+
+CREATE INDEX idx_bets_player_placed_at ON bets (player_id, placed_at, id);
+
+CREATE TABLE journal_checkpoints (
+    name     VARCHAR(50) PRIMARY KEY,
+    position BIGINT      NOT NULL
+);
@@ -0,0 +1,4 @@
+-- The active-round lookup is per table: lead the index with table_id
+DROP INDEX idx_game_rounds_status_start_time;
+
+CREATE INDEX idx_game_rounds_table_status_start_time ON game_rounds (table_id, status, start_time);
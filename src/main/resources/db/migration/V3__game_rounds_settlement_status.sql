@@ -0,0 +1,6 @@
+-- Drawn rounds whose payout has not finished are found and settled again by status
+ALTER TABLE game_rounds ADD COLUMN settlement_status VARCHAR(20);
+
+UPDATE game_rounds SET settlement_status = 'SETTLED' WHERE status = 'COMPLETED';
+
+CREATE INDEX idx_game_rounds_settlement_status ON game_rounds (settlement_status);
@@ -0,0 +1,5 @@
+-- Set when a winning bet's credit is written to players, so an interrupted payout resumes
+-- with only the bets still unpaid. Winners settled before this column were paid in full.
+ALTER TABLE bets ADD COLUMN paid BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE bets SET paid = TRUE WHERE is_winner = TRUE;
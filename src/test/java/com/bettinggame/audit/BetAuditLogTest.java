@@ -0,0 +1,69 @@
+package com.bettinggame.audit;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.bettinggame.dto.BetRequest;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BetAuditLogTest {
+
+    private final Logger auditLogger = (Logger) LoggerFactory.getLogger(BetAuditLog.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        auditLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditLogger.detachAppender(appender);
+    }
+
+    @Test
+    void betAccepted_WritesOneKeyValueLine() {
+        // Given
+        Bet bet = Bet.builder()
+                .player(Player.builder().id(1L).nickname("auditor").build())
+                .gameRound(GameRound.builder().id(42L).build())
+                .betNumber(7)
+                .betAmount(new BigDecimal("12.50"))
+                .build();
+
+        // When
+        BetAuditLog.betAccepted(3, bet);
+
+        // Then
+        assertEquals(1, appender.list.size());
+        assertEquals("event=bet_accepted table=3 round=42 player=auditor number=7 amount=12.50",
+                appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    void betRejected_RecordsReason() {
+        // Given
+        BetRequest request = new BetRequest();
+        request.setNickname("auditor");
+        request.setBetNumber(2);
+        request.setBetAmount(new BigDecimal("5"));
+
+        // When
+        BetAuditLog.betRejected(1, request, "insufficient_balance");
+
+        // Then
+        assertEquals("event=bet_rejected table=1 player=auditor number=2 amount=5 reason=insufficient_balance",
+                appender.list.get(0).getFormattedMessage());
+    }
+}
@@ -0,0 +1,73 @@
+package com.bettinggame.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new ConcurrencyLimitingDataSource(target, 1, 50);
+        lenient().when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void getConnection_BeyondLimit_TimesOut() throws SQLException {
+        // Given
+        Connection held = dataSource.getConnection();
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getActive());
+        held.close();
+    }
+
+    @Test
+    void close_ReleasesPermitOnce() throws SQLException {
+        // Given
+        Connection first = dataSource.getConnection();
+
+        // When: closed twice
+        first.close();
+        first.close();
+
+        // Then: still one permit, not two
+        Connection second = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        second.close();
+        verify(connection, times(2)).close();
+        assertEquals(0, dataSource.getActive());
+    }
+
+    @Test
+    void getConnection_TargetFails_ReleasesPermit() throws SQLException {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("down")).thenReturn(connection);
+
+        // When
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        // Then
+        assertNotNull(dataSource.getConnection());
+    }
+}
@@ -0,0 +1,100 @@
+package com.bettinggame.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PayloadFormatInterceptorTest {
+
+    private final PayloadFormatInterceptor interceptor = new PayloadFormatInterceptor();
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void subscribe_NativeSessionAcceptingCbor_MovesToBinaryTopic() {
+        // When
+        Message<?> subscribe = interceptor.preSend(subscribe("s1", "sub-0", "/topic/round-results",
+                "application/cbor, application/json", true), channel);
+
+        // Then
+        assertEquals("/topic/cbor/round-results", StompHeaderAccessor.wrap(subscribe).getDestination());
+        assertTrue(interceptor.hasSubscribers("/topic/cbor/round-results"));
+    }
+
+    @Test
+    void subscribe_SockJsSessionOrJsonClient_KeepsJsonTopic() {
+        // When
+        Message<?> sockJs = interceptor.preSend(subscribe("s1", "sub-0", "/topic/game-state", "application/cbor", false), channel);
+        Message<?> json = interceptor.preSend(subscribe("s2", "sub-0", "/topic/game-state", null, true), channel);
+
+        // Then
+        assertEquals("/topic/game-state", StompHeaderAccessor.wrap(sockJs).getDestination());
+        assertEquals("/topic/game-state", StompHeaderAccessor.wrap(json).getDestination());
+        assertFalse(interceptor.hasSubscribers("/topic/cbor/game-state"));
+    }
+
+    @Test
+    void unsubscribeAndDisconnect_ReleaseBinarySubscriptions() {
+        // Given
+        interceptor.preSend(subscribe("s1", "sub-0", "/topic/game-state", "application/cbor", true), channel);
+        interceptor.preSend(subscribe("s2", "sub-0", "/topic/game-state", "application/cbor", true), channel);
+        interceptor.preSend(subscribe("s2", "sub-1", "/topic/round-results", "application/cbor", true), channel);
+
+        // When
+        interceptor.preSend(frame(StompCommand.UNSUBSCRIBE, "s1", "sub-0"), channel);
+
+        // Then
+        assertTrue(interceptor.hasSubscribers("/topic/cbor/game-state"));
+
+        // When: the session ends, twice as when a client sends DISCONNECT before closing
+        interceptor.preSend(frame(StompCommand.DISCONNECT, "s2", null), channel);
+        interceptor.preSend(frame(StompCommand.DISCONNECT, "s2", null), channel);
+
+        // Then
+        assertFalse(interceptor.hasSubscribers("/topic/cbor/game-state"));
+        assertFalse(interceptor.hasSubscribers("/topic/cbor/round-results"));
+    }
+
+    @Test
+    void binaryDestination_OnlyForTopics() {
+        assertEquals("/topic/cbor/tables/2/game-state", PayloadFormatInterceptor.binaryDestination("/topic/tables/2/game-state"));
+        assertNull(PayloadFormatInterceptor.binaryDestination("/user/alice/queue/settlement"));
+        assertNull(PayloadFormatInterceptor.binaryDestination("/topic/cbor/game-state"));
+    }
+
+    private Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination,
+                                      String accept, boolean nativeSession) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        if (accept != null) {
+            accessor.setNativeHeader(PayloadFormatInterceptor.ACCEPT_HEADER, accept);
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        if (nativeSession) {
+            attributes.put(PayloadFormatInterceptor.NATIVE_SESSION_ATTRIBUTE, Boolean.TRUE);
+        }
+        accessor.setSessionAttributes(attributes);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
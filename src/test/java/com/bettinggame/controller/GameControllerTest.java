@@ -1,12 +1,18 @@
 package com.bettinggame.controller;
 
+import com.bettinggame.dto.BetAck;
+import com.bettinggame.dto.BetHistoryItem;
+import com.bettinggame.dto.BetHistoryPage;
 import com.bettinggame.dto.BetRequest;
+import com.bettinggame.dto.LeaderboardEntry;
 import com.bettinggame.dto.PlayerRegistrationRequest;
 import com.bettinggame.model.Bet;
 import com.bettinggame.model.GameRound;
 import com.bettinggame.model.Player;
+import com.bettinggame.service.BetHistoryService;
 import com.bettinggame.service.GameSchedulerService;
 import com.bettinggame.service.GameService;
+import com.bettinggame.service.LeaderboardService;
 import com.bettinggame.service.PlayerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,10 +24,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,9 +51,18 @@ class GameControllerTest {
     @MockBean
     private GameSchedulerService gameSchedulerService;
 
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    @MockBean
+    private BetHistoryService betHistoryService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private GameController gameController;
+
     private Player testPlayer;
     private PlayerRegistrationRequest registrationRequest;
     private BetRequest betRequest;
@@ -71,6 +89,7 @@ class GameControllerTest {
         testBet = Bet.builder()
                 .id(1L)
                 .player(testPlayer)
+                .gameRound(GameRound.builder().id(1L).build())
                 .betNumber(5)
                 .betAmount(BigDecimal.valueOf(100))
                 .build();
@@ -124,16 +143,48 @@ class GameControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getBetHistory_Success() throws Exception {
+        // Given
+        BetHistoryPage page = BetHistoryPage.builder()
+                .bets(List.of(BetHistoryItem.builder().id(7L).betNumber(5).build()))
+                .nextCursor("next")
+                .build();
+        when(playerService.findByNickname("testPlayer")).thenReturn(Optional.of(testPlayer));
+        when(betHistoryService.getHistory(testPlayer, null, 20)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/players/testPlayer/bets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bets[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getBetHistory_UnknownPlayer_ReturnsNotFound() throws Exception {
+        // Given
+        when(playerService.findByNickname("nonexistent")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/players/nonexistent/bets"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getTopWinners_Success() throws Exception {
         // Given
-        List<Player> winners = Arrays.asList(testPlayer);
-        when(playerService.getTopWinners()).thenReturn(winners);
+        List<LeaderboardEntry> winners = List.of(LeaderboardEntry.builder()
+                .rank(1)
+                .nickname("testPlayer")
+                .totalWinnings(BigDecimal.valueOf(990))
+                .build());
+        when(leaderboardService.top(10)).thenReturn(winners);
 
         // When & Then
         mockMvc.perform(get("/api/players/winners"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].nickname").value("testPlayer"));
+                .andExpect(jsonPath("$[0].nickname").value("testPlayer"))
+                .andExpect(jsonPath("$[0].rank").value(1));
     }
 
     @Test
@@ -162,6 +213,39 @@ class GameControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void handleBetPlacement_AcceptedBet_AcksWithCorrelationId() {
+        // Given
+        when(gameService.placeBet(any(BetRequest.class))).thenReturn(testBet);
+
+        // When
+        BetAck ack = gameController.handleBetPlacement(betRequest, "42");
+
+        // Then
+        assertTrue(ack.isAccepted());
+        assertEquals("42", ack.getCorrelationId());
+        assertEquals(1L, ack.getRoundId());
+        assertEquals(5, ack.getBetNumber());
+        assertEquals(BigDecimal.valueOf(1000), ack.getBalance());
+        assertNull(ack.getError());
+    }
+
+    @Test
+    void handleBetPlacement_RejectedBet_AcksWithError() {
+        // Given
+        when(gameService.placeBet(any(BetRequest.class)))
+                .thenThrow(new IllegalArgumentException("Insufficient balance"));
+
+        // When
+        BetAck ack = gameController.handleBetPlacement(betRequest, "43");
+
+        // Then
+        assertFalse(ack.isAccepted());
+        assertEquals("43", ack.getCorrelationId());
+        assertEquals("Insufficient balance", ack.getError());
+        assertNull(ack.getRoundId());
+    }
+
     @Test
     void getGameState_Success() throws Exception {
         // Given
@@ -0,0 +1,136 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.dto.BetHistoryItem;
+import com.bettinggame.dto.BetHistoryPage;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.BetRepository;
+import com.bettinggame.repository.GameRoundRepository;
+import com.bettinggame.repository.PlayerRepository;
+import com.bettinggame.service.BetHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BetHistoryIntegrationTest {
+
+    @Autowired
+    private BetHistoryService betHistoryService;
+
+    @Autowired
+    private GameRoundRepository gameRoundRepository;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private Player player;
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Five bets, two of them placed at the same instant so the id breaks the tie
+        player = playerRepository.save(Player.builder()
+                .nickname("historian")
+                .balance(BigDecimal.valueOf(1000))
+                .build());
+        Player other = playerRepository.save(Player.builder()
+                .nickname("bystander")
+                .balance(BigDecimal.valueOf(1000))
+                .build());
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        int[] minutes = {0, 1, 2, 2, 3};
+        for (int minute : minutes) {
+            GameRound round = gameRoundRepository.save(GameRound.builder()
+                    .status(GameRound.GameRoundStatus.COMPLETED)
+                    .build());
+            Bet bet = betRepository.save(Bet.builder()
+                    .player(player)
+                    .gameRound(round)
+                    .betNumber(minute + 1)
+                    .betAmount(BigDecimal.TEN)
+                    .placedAt(base.plusMinutes(minute))
+                    .build());
+            newestFirst.add(0, bet.getId());
+            betRepository.save(Bet.builder()
+                    .player(other)
+                    .gameRound(round)
+                    .betNumber(1)
+                    .betAmount(BigDecimal.ONE)
+                    .placedAt(base.plusMinutes(minute))
+                    .build());
+        }
+        // Same instant: the later id comes first
+        assertTrue(newestFirst.get(1) > newestFirst.get(2));
+    }
+
+    @Test
+    void getHistory_WalksAllPagesNewestFirst() {
+        // When: following the cursor with two bets per page
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            BetHistoryPage page = betHistoryService.getHistory(player, cursor, 2);
+            page.getBets().forEach(bet -> seen.add(bet.getId()));
+            pageSizes.add(page.getBets().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(newestFirst, seen);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void getHistory_LastPageHasNoCursor() {
+        // When
+        BetHistoryPage page = betHistoryService.getHistory(player, null, 5);
+
+        // Then
+        assertEquals(5, page.getBets().size());
+        assertNull(page.getNextCursor());
+        BetHistoryItem newest = page.getBets().get(0);
+        assertEquals(4, newest.getBetNumber());
+        assertNotNull(newest.getGameRoundId());
+    }
+
+    @Test
+    void getHistory_InvalidCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> betHistoryService.getHistory(player, "not-a-cursor", 2));
+    }
+
+    @Test
+    void exportHistory_WritesOneJsonLinePerBet() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = betHistoryService.exportHistory(player, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, written);
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":" + newestFirst.get(0) + ","));
+    }
+}
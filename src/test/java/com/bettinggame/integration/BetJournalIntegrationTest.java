@@ -0,0 +1,159 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.dto.BetHistoryPage;
+import com.bettinggame.dto.BetRequest;
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.journal.BetStore;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.BetRepository;
+import com.bettinggame.service.BetHistoryService;
+import com.bettinggame.service.GameService;
+import com.bettinggame.service.PlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        "app.bets.store=journal",
+        "app.bets.journal.dir=target/bet-journal-it/${random.uuid}",
+        "app.bets.journal.segment-bytes=1048576",
+        "app.bets.journal.projection-interval-millis=600000",
+        "spring.datasource.url=jdbc:h2:mem:betjournal;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class BetJournalIntegrationTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private BetStore betStore;
+
+    @Autowired
+    private BetHistoryService betHistoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void placeBet_JournaledBetsAreProjectedBeforeSettlement() {
+        // Given
+        GameRound round = gameService.createNewRound(7);
+        for (int number = 1; number <= 10; number++) {
+            PlayerRegistrationRequest registration = new PlayerRegistrationRequest();
+            registration.setNickname("journal" + number);
+            registration.setInitialBalance(BigDecimal.valueOf(500));
+            playerService.registerPlayer(registration);
+
+            BetRequest betRequest = new BetRequest();
+            betRequest.setNickname("journal" + number);
+            betRequest.setBetNumber(number);
+            betRequest.setBetAmount(BigDecimal.valueOf(50));
+            gameService.placeBet(7, betRequest);
+        }
+
+        // When
+        gameService.closeBetting(round);
+        GameRoundResult result = gameService.completeRound(round);
+
+        // Then
+        List<Bet> bets = betRepository.findByGameRoundId(round.getId());
+        assertEquals(10, bets.size());
+        assertEquals(1, bets.stream().filter(Bet::getIsWinner).count());
+        assertEquals("journal" + result.getWinningNumber(), result.getWinners()[0].getNickname());
+        assertEquals(0, BigDecimal.valueOf(945).compareTo(
+                playerService.getPlayerByNickname("journal" + result.getWinningNumber()).getBalance()));
+    }
+
+    @Test
+    void awaitPersisted_CallerRollsBack_ProjectedBetsAreKept() {
+        // Given
+        GameRound round = gameService.createNewRound(8);
+        PlayerRegistrationRequest registration = new PlayerRegistrationRequest();
+        registration.setNickname("rollback");
+        registration.setInitialBalance(BigDecimal.valueOf(500));
+        playerService.registerPlayer(registration);
+        BetRequest betRequest = new BetRequest();
+        betRequest.setNickname("rollback");
+        betRequest.setBetNumber(4);
+        betRequest.setBetAmount(BigDecimal.valueOf(50));
+        gameService.placeBet(8, betRequest);
+
+        // When: projection runs inside a transaction that then rolls back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            betStore.awaitPersisted();
+            status.setRollbackOnly();
+        });
+        betStore.awaitPersisted();
+
+        // Then
+        assertEquals(1, betRepository.findByGameRoundId(round.getId()).size());
+    }
+
+    @Test
+    void getHistory_ProjectsJournaledBetsBeforeReading() {
+        // Given: a journaled bet the background projection hasn't picked up
+        gameService.createNewRound(9);
+        PlayerRegistrationRequest registration = new PlayerRegistrationRequest();
+        registration.setNickname("historian");
+        registration.setInitialBalance(BigDecimal.valueOf(500));
+        Player player = playerService.registerPlayer(registration);
+        BetRequest betRequest = new BetRequest();
+        betRequest.setNickname("historian");
+        betRequest.setBetNumber(6);
+        betRequest.setBetAmount(BigDecimal.valueOf(25));
+        gameService.placeBet(9, betRequest);
+
+        // When
+        BetHistoryPage page = betHistoryService.getHistory(player, null, 10);
+
+        // Then
+        assertEquals(1, page.getBets().size());
+        assertEquals(6, page.getBets().get(0).getBetNumber());
+    }
+
+    @Test
+    void awaitPersisted_RecordRejectedBySchema_SkippedAndRestProjected() {
+        // Given: a journaled bet for a player the database doesn't know, between two valid ones
+        GameRound round = gameService.createNewRound(10);
+        PlayerRegistrationRequest registration = new PlayerRegistrationRequest();
+        registration.setNickname("poisonNeighbour");
+        registration.setInitialBalance(BigDecimal.valueOf(500));
+        Player player = playerService.registerPlayer(registration);
+        Player unknown = Player.builder().id(999_999L).build();
+        betStore.store(Bet.builder().player(player).gameRound(round).betNumber(1).betAmount(BigDecimal.TEN).build());
+        betStore.store(Bet.builder().player(unknown).gameRound(round).betNumber(2).betAmount(BigDecimal.TEN).build());
+
+        // When
+        betStore.awaitPersisted();
+        BetRequest betRequest = new BetRequest();
+        betRequest.setNickname("poisonNeighbour");
+        betRequest.setBetNumber(3);
+        betRequest.setBetAmount(BigDecimal.TEN);
+        GameRound nextRound = gameService.createNewRound(10);
+        gameService.placeBet(10, betRequest);
+        betStore.awaitPersisted();
+
+        // Then: projection moved past the bad record and keeps going
+        assertEquals(1, betRepository.findByGameRoundId(round.getId()).size());
+        assertEquals(1, betRepository.findByGameRoundId(nextRound.getId()).size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.config.CborMessageConverter;
+import com.bettinggame.config.PayloadFormatInterceptor;
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.service.GameStateBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.scheduling.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:cbordb;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class CborSubscriptionIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GameStateBroadcaster broadcaster;
+
+    @Autowired
+    private CborMessageConverter cborMessageConverter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void tearDown() {
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void roundResults_NegotiatedPerSubscription() throws Exception {
+        // Given: one subscription asking for CBOR and one without an accept header
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new RawBodyConverter());
+        StompSession session = stompClient.connectAsync("ws://localhost:" + port + "/ws-native",
+                new StompSessionHandlerAdapter() {
+                }).get(5, TimeUnit.SECONDS);
+
+        StompHeaders binaryHeaders = new StompHeaders();
+        binaryHeaders.setDestination("/topic/round-results");
+        binaryHeaders.set(PayloadFormatInterceptor.ACCEPT_HEADER, "application/cbor");
+        BlockingQueue<byte[]> binary = subscribe(session, binaryHeaders);
+        StompHeaders jsonHeaders = new StompHeaders();
+        jsonHeaders.setDestination("/topic/round-results");
+        BlockingQueue<byte[]> json = subscribe(session, jsonHeaders);
+        Thread.sleep(200); // SUBSCRIBE is processed asynchronously
+
+        GameRoundResult result = GameRoundResult.builder()
+                .roundId(11L)
+                .winningNumber(5)
+                .endTime(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .winners(new GameRoundResult.WinnerInfo[]{
+                        new GameRoundResult.WinnerInfo("carol", new BigDecimal("49.50"))})
+                .build();
+
+        // When
+        broadcaster.send("/topic/round-results", result);
+
+        // Then
+        byte[] cborBody = binary.poll(5, TimeUnit.SECONDS);
+        byte[] jsonBody = json.poll(5, TimeUnit.SECONDS);
+        assertNotNull(cborBody);
+        assertNotNull(jsonBody);
+        assertEquals(result, cborMessageConverter.getObjectMapper().readValue(cborBody, GameRoundResult.class));
+        assertTrue(new String(jsonBody, StandardCharsets.UTF_8).contains("\"winnings\":49.50"));
+        assertEquals(result.getRoundId(), objectMapper.readValue(jsonBody, GameRoundResult.class).getRoundId());
+        assertTrue(cborBody.length < jsonBody.length);
+    }
+
+    private BlockingQueue<byte[]> subscribe(StompSession session, StompHeaders headers) {
+        BlockingQueue<byte[]> bodies = new LinkedBlockingQueue<>();
+        session.subscribe(headers, new StompFrameHandler() {
+            @Override
+            @NonNull
+            public Type getPayloadType(@NonNull StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                bodies.add((byte[]) payload);
+            }
+        });
+        return bodies;
+    }
+
+    // Hands over the raw body of both the binary and the JSON frames
+    private static class RawBodyConverter extends ByteArrayMessageConverter {
+        RawBodyConverter() {
+            addSupportedMimeTypes(MimeTypeUtils.APPLICATION_JSON);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.dto.BetRequest;
+import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.ledger.BalanceLedger;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.BetRepository;
+import com.bettinggame.service.GameService;
+import com.bettinggame.service.PlayerService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        "app.bets.store=jpa",
+        "spring.datasource.url=jdbc:h2:mem:concurrentbetsdb;DB_CLOSE_DELAY=-1",
+        "logging.level.com.bettinggame.service=WARN"
+})
+@ActiveProfiles("test")
+@Slf4j
+class ConcurrentBetPlacementIntegrationTest {
+
+    private static final int PLAYERS = 200;
+    private static final int TABLES = 16;
+    private static final int ATTEMPTS_PER_TABLE = 3;
+    private static final int AFFORDABLE_BETS = 3;
+    private static final BigDecimal STAKE = BigDecimal.TEN;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private BalanceLedger balanceLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void placeBet_ConcurrentBurst_NeverOverdraftsOrDoubleBooks() throws Exception {
+        // Given: every player can afford three bets but tries every table three times at once
+        for (int i = 0; i < PLAYERS; i++) {
+            register("burst" + i, STAKE.multiply(BigDecimal.valueOf(AFFORDABLE_BETS)));
+        }
+        for (int tableId = 1; tableId <= TABLES; tableId++) {
+            gameService.createNewRound(tableId);
+        }
+
+        List<Runnable> requests = new ArrayList<>();
+        Map<String, AtomicInteger> accepted = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> rejections = new ConcurrentHashMap<>();
+        for (int attempt = 0; attempt < ATTEMPTS_PER_TABLE; attempt++) {
+            for (int tableId = 1; tableId <= TABLES; tableId++) {
+                for (int i = 0; i < PLAYERS; i++) {
+                    int table = tableId;
+                    String nickname = "burst" + i;
+                    requests.add(() -> {
+                        try {
+                            gameService.placeBet(table, betRequest(nickname));
+                            accepted.computeIfAbsent(nickname, key -> new AtomicInteger()).incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            rejections.computeIfAbsent(e.getMessage(), key -> new AtomicInteger()).incrementAndGet();
+                        }
+                    });
+                }
+            }
+        }
+
+        // When
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(requests.size());
+        for (Runnable request : requests) {
+            futures.add(clients.submit(() -> {
+                startGate.await();
+                request.run();
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        clients.shutdown();
+        log.info("Placed {} concurrent bet requests in {} ms ({} requests/s)", requests.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), requests.size() * 1_000_000_000L / elapsedNanos);
+
+        // Then
+        assertEquals(PLAYERS, accepted.size());
+        accepted.forEach((nickname, count) -> assertEquals(AFFORDABLE_BETS, count.get(), nickname));
+        assertEquals(Set.of("Insufficient balance", "Player already placed a bet in this round"), rejections.keySet());
+        assertEquals(requests.size() - PLAYERS * AFFORDABLE_BETS,
+                rejections.values().stream().mapToInt(AtomicInteger::get).sum());
+
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = playerService.getPlayerByNickname("burst" + i);
+            assertEquals(0, BigDecimal.ZERO.compareTo(player.getBalance()), player.getNickname());
+        }
+        assertEquals(PLAYERS * AFFORDABLE_BETS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bets b JOIN players p ON p.id = b.player_id WHERE p.nickname LIKE 'burst%'",
+                Integer.class));
+
+        balanceLedger.flush();
+        assertEquals(0, BigDecimal.ZERO.compareTo(jdbcTemplate.queryForObject(
+                "SELECT MIN(balance) FROM players WHERE nickname LIKE 'burst%'", BigDecimal.class)));
+    }
+
+    @Test
+    void placeBet_RowAlreadyStored_RejectedByUniqueConstraintAndRefunded() {
+        // Given: a bet for this round stored behind the book's back, as another instance would
+        Player player = register("elsewhere", BigDecimal.valueOf(100));
+        GameRound round = gameService.createNewRound(TABLES + 1);
+        betRepository.save(Bet.builder()
+                .player(player)
+                .gameRound(round)
+                .betNumber(4)
+                .betAmount(STAKE)
+                .build());
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> gameService.placeBet(TABLES + 1, betRequest("elsewhere")));
+
+        // Then
+        assertEquals("Player already placed a bet in this round", exception.getMessage());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(playerService.getPlayerByNickname("elsewhere").getBalance()));
+        assertFalse(gameService.getOpenBook(TABLES + 1).orElseThrow().hasBet(player.getId()));
+    }
+
+    private Player register(String nickname, BigDecimal balance) {
+        PlayerRegistrationRequest request = new PlayerRegistrationRequest();
+        request.setNickname(nickname);
+        request.setInitialBalance(balance);
+        return playerService.registerPlayer(request);
+    }
+
+    private BetRequest betRequest(String nickname) {
+        BetRequest request = new BetRequest();
+        request.setNickname(nickname);
+        request.setBetNumber(7);
+        request.setBetAmount(STAKE);
+        return request;
+    }
+}
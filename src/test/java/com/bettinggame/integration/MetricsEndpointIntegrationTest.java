@@ -0,0 +1,77 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.dto.BetRequest;
+import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.service.GameService;
+import com.bettinggame.service.PlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations=true",
+        "spring.datasource.url=jdbc:h2:mem:metricsdb;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Test
+    void prometheus_ExposesBetAndRoundMetrics() throws Exception {
+        // Given: one accepted bet, one on a table without a round and one the player can't afford
+        PlayerRegistrationRequest registration = new PlayerRegistrationRequest();
+        registration.setNickname("metered");
+        registration.setInitialBalance(BigDecimal.valueOf(15));
+        playerService.registerPlayer(registration);
+        gameService.createNewRound(1);
+
+        gameService.placeBet(1, betRequest());
+        assertThrows(IllegalStateException.class, () -> gameService.placeBet(2, betRequest()));
+        gameService.createNewRound(2);
+        assertThrows(IllegalArgumentException.class, () -> gameService.placeBet(2, betRequest()));
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertTrue(scrape.contains("game_bet_placement_seconds_count{outcome=\"accepted\"} 1\n"));
+        assertTrue(scrape.contains("game_bet_placement_seconds_count{outcome=\"rejected\"} 2\n"));
+        assertTrue(scrape.contains("game_bet_rejected_total{reason=\"insufficient_balance\"} 1.0"));
+        assertTrue(scrape.contains("game_bet_rejected_total{reason=\"no_open_round\"} 1.0"));
+        assertTrue(scrape.contains("game_round_open_bets{table=\"1\"} 1.0"));
+        assertTrue(scrape.contains("game_round_open_stake_cents{table=\"1\"} 1000.0"));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"));
+    }
+
+    private BetRequest betRequest() {
+        BetRequest request = new BetRequest();
+        request.setNickname("metered");
+        request.setBetNumber(2);
+        request.setBetAmount(BigDecimal.TEN);
+        return request;
+    }
+}
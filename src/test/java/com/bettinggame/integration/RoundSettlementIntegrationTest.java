@@ -0,0 +1,145 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.BetRepository;
+import com.bettinggame.repository.GameRoundRepository;
+import com.bettinggame.repository.PlayerRepository;
+import com.bettinggame.service.GameService;
+import com.bettinggame.service.PlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RoundSettlementIntegrationTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameRoundRepository gameRoundRepository;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Test
+    void completeRound_SettlesWinnersWithBulkUpdates() {
+        // Given: ten players covering every number, so exactly one of them wins
+        GameRound round = gameRoundRepository.save(GameRound.builder()
+                .status(GameRound.GameRoundStatus.BETTING_CLOSED)
+                .build());
+        for (int number = 1; number <= 10; number++) {
+            Player player = playerRepository.save(Player.builder()
+                    .nickname("settle" + number)
+                    .balance(BigDecimal.valueOf(900))
+                    .build());
+            betRepository.save(Bet.builder()
+                    .player(player)
+                    .gameRound(round)
+                    .betNumber(number)
+                    .betAmount(BigDecimal.valueOf(100))
+                    .build());
+        }
+
+        // When
+        GameRoundResult result = gameService.completeRound(round);
+
+        // Then
+        assertEquals(1, result.getWinners().length);
+        String winnerNickname = result.getWinners()[0].getNickname();
+        assertEquals("settle" + result.getWinningNumber(), winnerNickname);
+
+        Player winner = playerService.getPlayerByNickname(winnerNickname);
+        assertEquals(0, BigDecimal.valueOf(1890).compareTo(winner.getBalance()));
+        assertEquals(0, BigDecimal.valueOf(990).compareTo(winner.getTotalWinnings()));
+
+        List<Bet> winningBets = betRepository.findWinningBetsByGameRoundId(round.getId());
+        assertEquals(1, winningBets.size());
+        assertEquals(0, BigDecimal.valueOf(990).compareTo(winningBets.get(0).getWinnings()));
+
+        Player loser = playerService.getPlayerByNickname("settle" + (result.getWinningNumber() % 10 + 1));
+        assertEquals(0, BigDecimal.valueOf(900).compareTo(loser.getBalance()));
+        assertEquals(GameRound.SettlementStatus.SETTLED,
+                gameRoundRepository.findById(round.getId()).orElseThrow().getSettlementStatus());
+    }
+
+    @Test
+    void settleRound_AlreadySettled_PaysNobodyTwice() {
+        // Given
+        GameRound round = gameRoundRepository.save(GameRound.builder()
+                .status(GameRound.GameRoundStatus.BETTING_CLOSED)
+                .build());
+        Player player = playerRepository.save(Player.builder()
+                .nickname("settleTwice")
+                .balance(BigDecimal.valueOf(900))
+                .build());
+        gameService.drawRound(round);
+        betRepository.save(Bet.builder()
+                .player(player)
+                .gameRound(round)
+                .betNumber(round.getWinningNumber())
+                .betAmount(BigDecimal.valueOf(100))
+                .build());
+        assertEquals(1, gameService.settleRound(round).getWinners().length);
+
+        // When
+        GameRoundResult again = gameService.settleRound(round);
+
+        // Then
+        assertEquals(0, again.getWinners().length);
+        assertEquals(0, BigDecimal.valueOf(1890).compareTo(playerService.getPlayerByNickname("settleTwice").getBalance()));
+    }
+
+    @Test
+    void takeUnpaidWinningBets_CutOffPayout_LeavesOutCreditedBets() {
+        // Given: two winners, and a payout cut off after crediting the first
+        GameRound round = gameRoundRepository.save(GameRound.builder()
+                .status(GameRound.GameRoundStatus.BETTING_CLOSED)
+                .build());
+        gameService.drawRound(round);
+        List<Bet> bets = new ArrayList<>();
+        for (String nickname : List.of("cutOffPaid", "cutOffUnpaid")) {
+            Player player = playerRepository.save(Player.builder()
+                    .nickname(nickname)
+                    .balance(BigDecimal.valueOf(900))
+                    .build());
+            bets.add(betRepository.save(Bet.builder()
+                    .player(player)
+                    .gameRound(round)
+                    .betNumber(round.getWinningNumber())
+                    .betAmount(BigDecimal.valueOf(100))
+                    .build()));
+        }
+        assertTrue(gameService.settleWinningBets(round));
+        gameService.payWinners(round, List.of(bets.get(0)));
+
+        // When
+        List<Bet> unpaid = gameService.takeUnpaidWinningBets(round);
+        gameService.payWinners(round, unpaid);
+
+        // Then: each winner is credited exactly once
+        assertEquals(1, unpaid.size());
+        assertEquals("cutOffUnpaid", unpaid.get(0).getPlayer().getNickname());
+        assertEquals(0, BigDecimal.valueOf(1890).compareTo(playerService.getPlayerByNickname("cutOffPaid").getBalance()));
+        assertEquals(0, BigDecimal.valueOf(1890).compareTo(playerService.getPlayerByNickname("cutOffUnpaid").getBalance()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.bettinggame.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Builds the schema from the Flyway migrations, as the prod profile does, and lets Hibernate validate it
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationdb;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_CreateHotQueryIndexes() {
+        // When
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES", String.class);
+
+        // Then
+        assertTrue(indexes.contains("idx_bets_player_placed_at"));
+        assertTrue(indexes.contains("idx_game_rounds_table_status_start_time"));
+        assertTrue(indexes.contains("idx_game_rounds_settlement_status"));
+        assertTrue(indexes.stream().anyMatch(name -> name.startsWith("uk_bets_round_player")));
+    }
+
+    @Test
+    void migrations_RejectSecondBetOfPlayerInRound() {
+        // Given
+        jdbcTemplate.update("INSERT INTO players (id, nickname, balance, total_winnings, created_at) " +
+                "VALUES (900, 'migrated', 100, 0, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO game_rounds (id, table_id, start_time, status) " +
+                "VALUES (900, 1, CURRENT_TIMESTAMP, 'BETTING_OPEN')");
+        String insertBet = "INSERT INTO bets (player_id, game_round_id, bet_number, bet_amount, is_winner, placed_at) " +
+                "VALUES (900, 900, ?, 10, FALSE, CURRENT_TIMESTAMP)";
+        jdbcTemplate.update(insertBet, 3);
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(insertBet, 7));
+    }
+}
@@ -0,0 +1,132 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.controller.GameController;
+import com.bettinggame.dto.BetAck;
+import com.bettinggame.dto.BetRequest;
+import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.service.GameService;
+import com.bettinggame.service.PlayerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:stompdb;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class StompBetPlacementIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private GameService gameService;
+
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void tearDown() {
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void placeBet_AcksOnlyTheSendingSession() throws Exception {
+        // Given
+        register("stomp-sender");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gameService.getCurrentActiveRound().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompSession sender = connect();
+        StompSession bystander = connect();
+        BlockingQueue<BetAck> senderAcks = subscribeToAcks(sender);
+        BlockingQueue<BetAck> bystanderAcks = subscribeToAcks(bystander);
+
+        BetRequest request = new BetRequest();
+        request.setNickname("stomp-sender");
+        request.setBetNumber(3);
+        request.setBetAmount(BigDecimal.valueOf(10));
+
+        // When
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/place-bet");
+        headers.set(GameController.CORRELATION_ID_HEADER, "bet-1");
+        sender.send(headers, request);
+        BetAck accepted = senderAcks.poll(5, TimeUnit.SECONDS);
+        headers.set(GameController.CORRELATION_ID_HEADER, "bet-2");
+        sender.send(headers, request);
+
+        // Then
+        assertNotNull(accepted);
+        assertTrue(accepted.isAccepted(), accepted.getError());
+        assertEquals("bet-1", accepted.getCorrelationId());
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(accepted.getBalance()));
+
+        BetAck duplicate = senderAcks.poll(5, TimeUnit.SECONDS);
+        assertNotNull(duplicate);
+        assertFalse(duplicate.isAccepted());
+        assertEquals("bet-2", duplicate.getCorrelationId());
+        assertEquals("Player already placed a bet in this round", duplicate.getError());
+
+        assertNull(bystanderAcks.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    private void register(String nickname) {
+        PlayerRegistrationRequest request = new PlayerRegistrationRequest();
+        request.setNickname(nickname);
+        request.setInitialBalance(BigDecimal.valueOf(100));
+        playerService.registerPlayer(request);
+    }
+
+    private StompSession connect() throws Exception {
+        return stompClient.connectAsync("http://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private BlockingQueue<BetAck> subscribeToAcks(StompSession session) throws InterruptedException {
+        BlockingQueue<BetAck> acks = new LinkedBlockingQueue<>();
+        session.subscribe("/user" + GameController.BET_ACK_QUEUE, new StompFrameHandler() {
+            @Override
+            @NonNull
+            public Type getPayloadType(@NonNull StompHeaders headers) {
+                return BetAck.class;
+            }
+
+            @Override
+            public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                acks.add((BetAck) payload);
+            }
+        });
+        // SUBSCRIBE is processed asynchronously; give the broker a moment to register it
+        Thread.sleep(200);
+        return acks;
+    }
+}
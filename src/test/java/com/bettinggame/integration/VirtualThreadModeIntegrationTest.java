@@ -0,0 +1,50 @@
+package com.bettinggame.integration;
+
+import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.service.PlayerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "app.jdbc.max-concurrency=4",
+        "spring.datasource.url=jdbc:h2:mem:virtualdb;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class VirtualThreadModeIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void dataSource_IsLimitedAndStillServesQueries() {
+        // Given
+        PlayerRegistrationRequest request = new PlayerRegistrationRequest();
+        request.setNickname("virtual");
+        request.setInitialBalance(BigDecimal.valueOf(100));
+
+        // When
+        playerService.registerPlayer(request);
+
+        // Then
+        assertInstanceOf(DelegatingDataSource.class, dataSource);
+        assertTrue(playerService.findByNickname("virtual").isPresent());
+        assertEquals(4.0, meterRegistry.get("jdbc.limiter.max").gauge().value());
+        assertEquals(0.0, meterRegistry.get("jdbc.limiter.active").gauge().value());
+    }
+}
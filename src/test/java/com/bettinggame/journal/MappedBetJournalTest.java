@@ -0,0 +1,106 @@
+package com.bettinggame.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedBetJournalTest {
+
+    // Room for four records per segment
+    private static final int SEGMENT_BYTES = 4 * MappedBetJournal.RECORD_BYTES + 10;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void append_RollsSegmentsAndReadsBack() {
+        // Given
+        MappedBetJournal journal = new MappedBetJournal(journalDir, SEGMENT_BYTES, FsyncPolicy.NONE, 0);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            journal.append(i, 100 + i, i % 10 + 1, 1_000L * i, 1_700_000_000_000L + i);
+        }
+
+        // Then
+        assertEquals(10, journal.nextSequence());
+        assertTrue(Files.exists(journalDir.resolve("bets-2.journal")));
+        List<Long> players = new ArrayList<>();
+        journal.read(3, 10, (sequence, playerId, roundId, number, amountCents, placedAtMillis) -> {
+            assertEquals(100 + playerId, roundId);
+            assertEquals(1_000L * playerId, amountCents);
+            players.add(playerId);
+        });
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L, 9L), players);
+    }
+
+    @Test
+    void open_RecoversUpToTornRecord() throws IOException {
+        // Given: six records, the last one torn by a crash
+        MappedBetJournal journal = new MappedBetJournal(journalDir, SEGMENT_BYTES, FsyncPolicy.ALWAYS, 0);
+        for (int i = 0; i < 6; i++) {
+            journal.append(i, 1, 1, 100, 0);
+        }
+        journal.close();
+        try (RandomAccessFile segment = new RandomAccessFile(journalDir.resolve("bets-1.journal").toFile(), "rw")) {
+            segment.seek(MappedBetJournal.RECORD_BYTES + 8);
+            segment.writeLong(-1);
+        }
+
+        // When
+        MappedBetJournal recovered = new MappedBetJournal(journalDir, SEGMENT_BYTES, FsyncPolicy.ALWAYS, 0);
+
+        // Then
+        assertEquals(5, recovered.nextSequence());
+        assertEquals(5, recovered.append(99, 1, 1, 100, 0));
+    }
+
+    @Test
+    void awaitDurable_NoForceInTime_FailsAndVoidsRecord() throws InterruptedException {
+        // Given: a GROUP journal whose periodic force has stopped
+        MappedBetJournal journal = new MappedBetJournal(journalDir, SEGMENT_BYTES, FsyncPolicy.GROUP, 0);
+        long kept = journal.append(1, 1, 1, 100, 0);
+        journal.force();
+        long refused = journal.append(2, 1, 1, 100, 0);
+        assertEquals(1, journal.durableSequence());
+
+        // When
+        assertThrows(IllegalStateException.class, () -> journal.awaitDurable(refused, 20));
+        long next = journal.append(3, 1, 1, 100, 0);
+        journal.force();
+        journal.awaitDurable(next, 20);
+
+        // Then: the refused record is skipped on read and still counted on recovery
+        List<Long> players = new ArrayList<>();
+        journal.read(kept, journal.durableSequence(),
+                (sequence, playerId, roundId, number, amountCents, placedAtMillis) -> players.add(playerId));
+        assertEquals(List.of(1L, 3L), players);
+        journal.close();
+        assertEquals(3, new MappedBetJournal(journalDir, SEGMENT_BYTES, FsyncPolicy.GROUP, 0).nextSequence());
+    }
+
+    @Test
+    void deleteBefore_KeepsSegmentsWithUnprojectedRecords() {
+        // Given
+        MappedBetJournal journal = new MappedBetJournal(journalDir, SEGMENT_BYTES, FsyncPolicy.NONE, 0);
+        for (int i = 0; i < 9; i++) {
+            journal.append(i, 1, 1, 100, 0);
+        }
+
+        // When
+        journal.deleteBefore(6);
+
+        // Then
+        assertFalse(Files.exists(journalDir.resolve("bets-0.journal")));
+        assertTrue(Files.exists(journalDir.resolve("bets-1.journal")));
+        assertTrue(Files.exists(journalDir.resolve("bets-2.journal")));
+    }
+}
@@ -0,0 +1,168 @@
+package com.bettinggame.ledger;
+
+import com.bettinggame.config.LedgerProperties;
+import com.bettinggame.model.JournalCheckpoint;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.JournalCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JournalCheckpointRepository checkpointRepository;
+
+    @TempDir
+    Path journalDir;
+
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        player = Player.builder()
+                .id(7L)
+                .nickname("ledgerPlayer")
+                .balance(BigDecimal.valueOf(100))
+                .build();
+        lenient().when(checkpointRepository.findById(BalanceLedger.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+    }
+
+    @Test
+    void tryDebit_RejectsOverdraftAndTracksLiveBalance() {
+        // Given
+        BalanceLedger ledger = startLedger();
+
+        // When
+        boolean first = ledger.tryDebit(player, 6_000);
+        boolean second = ledger.tryDebit(player, 6_000);
+        ledger.creditWinnings(player, 59_400, 3L);
+        ledger.applyTo(player);
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(0, new BigDecimal("634.00").compareTo(player.getBalance()));
+        assertEquals(0, new BigDecimal("594.00").compareTo(player.getTotalWinnings()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_WritesOneDeltaPerPlayerAndCheckpoints() {
+        // Given
+        BalanceLedger ledger = startLedger();
+        ledger.tryDebit(player, 1_000);
+        ledger.creditWinnings(player, 500, 3L);
+
+        // When
+        int flushed = ledger.flush();
+
+        // Then
+        assertEquals(1, flushed);
+        List<Object[]> batch = captureBatch();
+        assertEquals(0, new BigDecimal("-5.00").compareTo((BigDecimal) batch.get(0)[0]));
+        assertEquals(0, new BigDecimal("5.00").compareTo((BigDecimal) batch.get(0)[1]));
+        assertEquals(7L, batch.get(0)[2]);
+        verify(checkpointRepository).save(any(JournalCheckpoint.class));
+        assertEquals(0, ledger.flush());
+    }
+
+    @Test
+    void start_ReplaysJournalLeftByCrash() {
+        // Given: changes journaled but never flushed
+        BalanceLedger crashed = startLedger();
+        crashed.tryDebit(player, 2_500);
+        crashed.credit(player, 500);
+
+        // When
+        startLedger();
+
+        // Then
+        List<Object[]> batch = captureBatch();
+        assertEquals(1, batch.size());
+        assertEquals(0, new BigDecimal("-20.00").compareTo((BigDecimal) batch.get(0)[0]));
+        ArgumentCaptor<JournalCheckpoint> checkpoint = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(checkpointRepository).save(checkpoint.capture());
+        assertEquals(1L, checkpoint.getValue().getPosition());
+    }
+
+    @Test
+    void flush_MarksPaidBetsWithTheirCredits() {
+        // Given
+        BalanceLedger ledger = startLedger();
+        ledger.creditWinnings(player, 9_900, 3L);
+
+        // When
+        ledger.flush();
+
+        // Then
+        List<Object[]> paid = capturePaid();
+        assertEquals(1, paid.size());
+        assertArrayEquals(new Object[]{3L, 7L}, paid.get(0));
+    }
+
+    @Test
+    void start_ReplayedPayoutsAreMarkedPaid() {
+        // Given: a payout journaled but never flushed
+        BalanceLedger crashed = startLedger();
+        crashed.creditWinnings(player, 9_900, 3L);
+        crashed.credit(player, 500);
+
+        // When
+        startLedger();
+
+        // Then: only the payout marks a bet
+        List<Object[]> paid = capturePaid();
+        assertEquals(1, paid.size());
+        assertArrayEquals(new Object[]{3L, 7L}, paid.get(0));
+    }
+
+    private BalanceLedger startLedger() {
+        LedgerProperties properties = new LedgerProperties();
+        properties.setJournalDir(journalDir.toString());
+        properties.setFlushIntervalMillis(60_000);
+        BalanceLedger ledger = new BalanceLedger(jdbcTemplate, transactionManager, checkpointRepository, properties);
+        ledger.start();
+        return ledger;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captureBatch() {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE players"), batch.capture());
+        return batch.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> capturePaid() {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE bets"), batch.capture());
+        return batch.getValue();
+    }
+}
@@ -8,11 +8,11 @@ import com.bettinggame.service.GameService;
 import com.bettinggame.service.PlayerService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -22,8 +22,17 @@ import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest
+/**
+ * End-to-end RTP check through the real bet and settlement path. It takes far longer than the
+ * rest of the suite, so it is tagged {@code long} and only runs with {@code -Plong-tests};
+ * {@code RtpSimulatorTest} covers the payout statistics in the default build.
+ */
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:rtpdb;DB_CLOSE_DELAY=-1"
+})
 @ActiveProfiles("test")
+@Tag("long")
 @Slf4j
 class RTPCalculationTest {
 
@@ -38,7 +47,6 @@ class RTPCalculationTest {
     private static final BigDecimal BET_AMOUNT = BigDecimal.valueOf(100);
 
     @Test
-    @Transactional
     void calculateRTP_OneMillion_Rounds() throws InterruptedException, ExecutionException {
         log.info("Starting RTP calculation test with {} rounds using {} threads", TOTAL_ROUNDS, THREAD_COUNT);
 
@@ -124,9 +132,11 @@ class RTPCalculationTest {
         int betCount = 0;
         int winCount = 0;
 
+        // Each thread plays its own table, so its open round isn't replaced by another thread's
+        int tableId = GameRound.DEFAULT_TABLE_ID + threadId;
         for (int round = 0; round < roundCount; round++) {
             // Create a new game round
-            GameRound gameRound = gameService.createNewRound();
+            GameRound gameRound = gameService.createNewRound(tableId);
             
             // Each player places a bet on a random number
             for (Player player : players) {
@@ -138,7 +148,7 @@ class RTPCalculationTest {
                 betRequest.setBetAmount(BET_AMOUNT);
                 
                 try {
-                    gameService.placeBet(betRequest);
+                    gameService.placeBet(tableId, betRequest);
                     totalBets = totalBets.add(BET_AMOUNT);
                     betCount++;
                 } catch (Exception e) {
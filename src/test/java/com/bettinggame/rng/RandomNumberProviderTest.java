@@ -0,0 +1,49 @@
+package com.bettinggame.rng;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomNumberProviderTest {
+
+    private static final int DRAWS = 100_000;
+
+    @Test
+    void threadLocalProvider_CoversEveryNumberWithinBound() {
+        assertUniformWithinBound(new ThreadLocalRandomNumberProvider());
+        assertUniformWithinBound(new ThreadLocalRandomNumberProvider("SplittableRandom"));
+    }
+
+    @Test
+    void secureProvider_CoversEveryNumberWithinBound() {
+        assertUniformWithinBound(new SecureRandomNumberProvider(null, 64));
+    }
+
+    @Test
+    void secureProvider_InvalidBufferSize_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SecureRandomNumberProvider(null, 6));
+    }
+
+    @Test
+    void seededProvider_ReplaysSameSequence() {
+        SeededRandomNumberProvider first = new SeededRandomNumberProvider(1234L);
+        SeededRandomNumberProvider second = new SeededRandomNumberProvider(1234L);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(first.nextInt(10), second.nextInt(10));
+        }
+    }
+
+    private void assertUniformWithinBound(RandomNumberProvider provider) {
+        int[] counts = new int[10];
+        for (int i = 0; i < DRAWS; i++) {
+            int value = provider.nextInt(10);
+            assertTrue(value >= 0 && value < 10, "Value out of bound: " + value);
+            counts[value]++;
+        }
+        for (int count : counts) {
+            // Expected 10,000 per number; 5 standard deviations is roughly +/- 475
+            assertEquals(DRAWS / 10, count, 500);
+        }
+    }
+}
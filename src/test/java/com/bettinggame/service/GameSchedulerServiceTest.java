@@ -0,0 +1,222 @@
+package com.bettinggame.service;
+
+import com.bettinggame.config.GameTableProperties;
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.GameState;
+import com.bettinggame.dto.RoundDraw;
+import com.bettinggame.model.GameRound;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameSchedulerServiceTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private SettlementService settlementService;
+
+    @Mock
+    private GameStateBroadcaster broadcaster;
+
+    private GameSchedulerService schedulerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        GameTableProperties properties = new GameTableProperties();
+        properties.setCount(3);
+        properties.setPartitions(2);
+        properties.setBettingDurationMillis(200);
+        properties.setIntermissionMillis(50);
+        meterRegistry = new SimpleMeterRegistry();
+        schedulerService = new GameSchedulerService(gameService, settlementService, broadcaster, properties, meterRegistry, true);
+
+        AtomicLong roundIds = new AtomicLong();
+        lenient().when(gameService.createNewRound(anyInt())).thenAnswer(invocation -> GameRound.builder()
+                .id(roundIds.incrementAndGet())
+                .tableId(invocation.getArgument(0))
+                .status(GameRound.GameRoundStatus.BETTING_OPEN)
+                .build());
+        lenient().when(gameService.getRound(anyLong())).thenAnswer(invocation -> GameRound.builder()
+                .id(invocation.getArgument(0))
+                .status(GameRound.GameRoundStatus.BETTING_CLOSED)
+                .build());
+        lenient().when(gameService.takeBets(any(GameRound.class))).thenReturn(List.of());
+        lenient().when(settlementService.submit(anyInt(), any(GameRound.class), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(Optional.of(GameRoundResult.builder()
+                        .roundId(invocation.<GameRound>getArgument(1).getId())
+                        .winners(new GameRoundResult.WinnerInfo[0])
+                        .build())));
+    }
+
+    @Test
+    void start_RunsEveryTableIndependently() {
+        // When
+        schedulerService.start();
+        try {
+            // Then
+            verify(gameService, timeout(2000)).createNewRound(1);
+            verify(gameService, timeout(2000)).createNewRound(2);
+            verify(gameService, timeout(2000)).createNewRound(3);
+            verify(broadcaster, timeout(2000)).publishState(eq("/topic/tables/3/game-state"), any(GameState.class));
+        } finally {
+            schedulerService.stop();
+        }
+    }
+
+    @Test
+    void start_RunsCloseAndDrawAsTimedEventsAndHandsOffSettlement() {
+        // When
+        schedulerService.start();
+        try {
+            // Then
+            verify(gameService, timeout(3000).atLeastOnce()).closeBetting(any(GameRound.class));
+            verify(gameService, timeout(3000).atLeastOnce()).drawRound(any(GameRound.class));
+            verify(settlementService, timeout(3000).atLeastOnce()).submit(anyInt(), any(GameRound.class), any());
+            verify(broadcaster, timeout(3000).atLeastOnce()).send(eq("/topic/tables/1/round-results"), any());
+            verify(gameService, timeout(3000).atLeast(4)).createNewRound(anyInt());
+        } finally {
+            schedulerService.stop();
+        }
+        Timer closeSkew = meterRegistry.get("game.round.timing.skew").tag("event", "close").timer();
+        assertTrue(closeSkew.count() >= 1);
+        assertTrue(closeSkew.max(TimeUnit.MILLISECONDS) < 1000);
+    }
+
+    @Test
+    void drawRound_BroadcastsDrawAndOpensNextRoundWhileSettling() {
+        // Given: a settlement that never finishes
+        when(settlementService.submit(anyInt(), any(GameRound.class), any())).thenReturn(new CompletableFuture<>());
+        GameTable table = schedulerService.getTable(1).orElseThrow();
+        schedulerService.openRound(table, System.nanoTime());
+        GameRound round = table.getCurrentRound();
+        round.setWinningNumber(7);
+        round.setStatus(GameRound.GameRoundStatus.COMPLETED);
+        when(gameService.getRound(round.getId())).thenReturn(round);
+
+        // When
+        schedulerService.drawRound(table, System.nanoTime());
+        schedulerService.openRound(table, System.nanoTime());
+
+        // Then
+        verify(gameService, never()).drawRound(any(GameRound.class));
+        verify(broadcaster).send(eq("/topic/tables/1/round-draw"), any(RoundDraw.class));
+        verify(broadcaster).send(eq("/topic/round-draw"), any(RoundDraw.class));
+        verify(broadcaster, never()).send(eq("/topic/tables/1/round-results"), any());
+        assertNotEquals(round.getId(), table.getCurrentRound().getId());
+    }
+
+    @Test
+    void openRound_RetriedAfterRoundWasCreated_ReusesRound() {
+        // Given: the first attempt fails after its round was created
+        doThrow(new IllegalStateException("broker down"))
+                .doNothing()
+                .when(broadcaster).publishState(eq("/topic/tables/1/game-state"), any(GameState.class));
+        GameTable table = schedulerService.getTable(1).orElseThrow();
+        assertThrows(IllegalStateException.class, () -> schedulerService.openRound(table, System.nanoTime()));
+        GameRound opened = table.getCurrentRound();
+
+        // When
+        schedulerService.openRound(table, System.nanoTime());
+
+        // Then
+        verify(gameService, times(1)).createNewRound(1);
+        assertSame(opened, table.getCurrentRound());
+    }
+
+    @Test
+    void drawRound_EarlierDrawNeverCommitted_DrawsAgain() {
+        // Given: a failed draw left its number on the table's copy, but the row has none
+        GameTable table = schedulerService.getTable(1).orElseThrow();
+        schedulerService.openRound(table, System.nanoTime());
+        GameRound inMemory = table.getCurrentRound();
+        inMemory.setWinningNumber(7);
+        when(gameService.drawRound(any(GameRound.class))).thenAnswer(invocation -> {
+            GameRound stored = invocation.getArgument(0);
+            stored.setWinningNumber(3);
+            return stored;
+        });
+
+        // When
+        schedulerService.drawRound(table, System.nanoTime());
+
+        // Then: the committed draw is announced and held by the table
+        verify(gameService).drawRound(argThat(round -> round != inMemory && round.getId().equals(inMemory.getId())));
+        verify(broadcaster).send(eq("/topic/tables/1/round-draw"),
+                argThat(draw -> draw instanceof RoundDraw roundDraw && roundDraw.getWinningNumber() == 3));
+        assertEquals(3, table.getCurrentRound().getWinningNumber());
+    }
+
+    @Test
+    void drawRound_RoundClaimedByAnotherSettler_NoResultsBroadcast() {
+        // Given: the recovery sweep already holds the round
+        when(settlementService.submit(anyInt(), any(GameRound.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        GameTable table = schedulerService.getTable(1).orElseThrow();
+        schedulerService.openRound(table, System.nanoTime());
+
+        // When
+        schedulerService.drawRound(table, System.nanoTime());
+
+        // Then
+        verify(broadcaster).send(eq("/topic/tables/1/round-draw"), any(RoundDraw.class));
+        verify(broadcaster, never()).send(eq("/topic/tables/1/round-results"), any());
+        verify(broadcaster, never()).send(eq("/topic/round-results"), any());
+    }
+
+    @Test
+    void openRound_DefaultTableMirrorsLegacyTopic() {
+        // Given
+        GameTable table = schedulerService.getTable(1).orElseThrow();
+
+        // When
+        schedulerService.openRound(table, System.nanoTime());
+
+        // Then
+        verify(broadcaster).publishState(eq("/topic/tables/1/game-state"), any(GameState.class));
+        verify(broadcaster).publishState(eq(GameStateBroadcaster.GAME_STATE_TOPIC), any(GameState.class));
+        GameState state = schedulerService.getTableState(1).orElseThrow();
+        assertTrue(state.isBettingOpen());
+        assertEquals(1, state.getTableId());
+    }
+
+    @Test
+    void openRound_ClosesRelativeToItsDeadlineNotItsRunTime() {
+        // Given: the open event runs 150 ms after its deadline
+        GameTable table = schedulerService.getTable(1).orElseThrow();
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(150);
+
+        // When
+        schedulerService.openRound(table, deadline);
+
+        // Then: betting still closes 200 ms after the deadline, not after the run
+        long remaining = table.getBettingClosesAt() - System.currentTimeMillis();
+        assertTrue(remaining <= 60, "betting closes in " + remaining + " ms");
+    }
+
+    @Test
+    void getTableState_UnknownTable_ReturnsEmpty() {
+        assertTrue(schedulerService.getTableState(99).isEmpty());
+        assertEquals(3, schedulerService.getTables().size());
+    }
+}
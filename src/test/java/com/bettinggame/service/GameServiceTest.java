@@ -1,24 +1,34 @@
 package com.bettinggame.service;
 
 import com.bettinggame.dto.BetRequest;
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.RoundExposure;
+import com.bettinggame.journal.BetStore;
 import com.bettinggame.model.Bet;
 import com.bettinggame.model.GameRound;
 import com.bettinggame.model.Player;
 import com.bettinggame.repository.BetRepository;
 import com.bettinggame.repository.GameRoundRepository;
+import com.bettinggame.rng.RandomNumberProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +43,18 @@ class GameServiceTest {
     @Mock
     private PlayerService playerService;
 
+    @Mock
+    private RandomNumberProvider randomNumberProvider;
+
+    @Mock
+    private BetStore betStore;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
     @InjectMocks
     private GameService gameService;
 
@@ -74,13 +96,40 @@ class GameServiceTest {
         verify(gameRoundRepository).save(any(GameRound.class));
     }
 
+    @Test
+    void getCurrentActiveRound_ResolvedFromOpenBook() {
+        // Given
+        openRound();
+
+        // When
+        Optional<GameRound> result = gameService.getCurrentActiveRound();
+
+        // Then
+        assertEquals(Optional.of(testGameRound), result);
+        verify(gameRoundRepository, never()).findFirstByTableIdAndStatusOrderByStartTimeDesc(anyInt(), any());
+    }
+
+    @Test
+    void getCurrentActiveRound_WithoutOpenBook_UsesSingleRowLookup() {
+        // Given: nothing scheduled on this instance
+        when(gameRoundRepository.findFirstByTableIdAndStatusOrderByStartTimeDesc(
+                GameRound.DEFAULT_TABLE_ID, GameRound.GameRoundStatus.BETTING_OPEN))
+                .thenReturn(Optional.of(testGameRound));
+
+        // When
+        Optional<GameRound> result = gameService.getCurrentActiveRound();
+
+        // Then
+        assertEquals(Optional.of(testGameRound), result);
+    }
+
     @Test
     void placeBet_Success() {
         // Given
+        openRound();
         when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
-        when(gameRoundRepository.findCurrentActiveRound()).thenReturn(Optional.of(testGameRound));
-        when(betRepository.findByGameRoundIdAndPlayerId(anyLong(), anyLong())).thenReturn(Optional.empty());
-        when(betRepository.save(any(Bet.class))).thenAnswer(invocation -> {
+        when(playerService.tryDebit(testPlayer, BigDecimal.valueOf(100))).thenReturn(true);
+        when(betStore.store(any(Bet.class))).thenAnswer(invocation -> {
             Bet bet = invocation.getArgument(0);
             bet.setId(1L);
             return bet;
@@ -97,16 +146,18 @@ class GameServiceTest {
         assertEquals(BigDecimal.valueOf(100), result.getBetAmount());
         
         verify(playerService).getPlayerByNickname("testPlayer");
-        verify(playerService).updatePlayer(testPlayer);
-        verify(betRepository).save(any(Bet.class));
+        verify(playerService).tryDebit(testPlayer, BigDecimal.valueOf(100));
+        verify(betStore).store(any(Bet.class));
+        verify(gameRoundRepository, never()).findFirstByTableIdAndStatusOrderByStartTimeDesc(anyInt(), any());
+        verify(betRepository, never()).findByGameRoundIdAndPlayerId(anyLong(), anyLong());
+        assertTrue(gameService.getOpenBook().orElseThrow().hasBet(testPlayer.getId()));
     }
 
     @Test
     void placeBet_InsufficientBalance_ThrowsException() {
         // Given
-        testPlayer.setBalance(BigDecimal.valueOf(50)); // Less than bet amount
+        openRound();
         when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
-        when(gameRoundRepository.findCurrentActiveRound()).thenReturn(Optional.of(testGameRound));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -115,15 +166,12 @@ class GameServiceTest {
         );
 
         assertEquals("Insufficient balance", exception.getMessage());
-        verify(betRepository, never()).save(any(Bet.class));
+        verify(betStore, never()).store(any(Bet.class));
+        verify(gameMetrics).betRejected(anyLong(), eq(GameMetrics.INSUFFICIENT_BALANCE));
     }
 
     @Test
     void placeBet_NoActiveRound_ThrowsException() {
-        // Given
-        when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
-        when(gameRoundRepository.findCurrentActiveRound()).thenReturn(Optional.empty());
-
         // When & Then
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -131,17 +179,17 @@ class GameServiceTest {
         );
 
         assertEquals("No active game round available", exception.getMessage());
-        verify(betRepository, never()).save(any(Bet.class));
+        verify(betStore, never()).store(any(Bet.class));
     }
 
     @Test
     void placeBet_AlreadyPlacedBet_ThrowsException() {
         // Given
-        Bet existingBet = Bet.builder().id(1L).build();
+        openRound();
         when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
-        when(gameRoundRepository.findCurrentActiveRound()).thenReturn(Optional.of(testGameRound));
-        when(betRepository.findByGameRoundIdAndPlayerId(anyLong(), anyLong()))
-                .thenReturn(Optional.of(existingBet));
+        when(playerService.tryDebit(testPlayer, BigDecimal.valueOf(100))).thenReturn(true);
+        when(betStore.store(any(Bet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        gameService.placeBet(betRequest);
 
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -150,7 +198,130 @@ class GameServiceTest {
         );
 
         assertEquals("Player already placed a bet in this round", exception.getMessage());
-        verify(betRepository, times(1)).findByGameRoundIdAndPlayerId(anyLong(), anyLong());
-        verify(betRepository, never()).save(any(Bet.class));
+        verify(betRepository, never()).findByGameRoundIdAndPlayerId(anyLong(), anyLong());
+        verify(betStore, times(1)).store(any(Bet.class));
+    }
+
+    @Test
+    void placeBet_UniqueConstraintViolation_RefundsAndReportsDuplicate() {
+        // Given: another instance already stored this player's bet for the round
+        openRound();
+        when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
+        when(playerService.tryDebit(testPlayer, BigDecimal.valueOf(100))).thenReturn(true);
+        when(betStore.store(any(Bet.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_BETS_ROUND_PLAYER_INDEX_1\"")));
+
+        // When
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> gameService.placeBet(betRequest)
+        );
+
+        // Then
+        assertEquals("Player already placed a bet in this round", exception.getMessage());
+        verify(playerService).refund(testPlayer, BigDecimal.valueOf(100));
+        verify(gameMetrics).betRejected(anyLong(), eq(GameMetrics.DUPLICATE));
+        assertFalse(gameService.getOpenBook().orElseThrow().hasBet(testPlayer.getId()));
+    }
+
+    @Test
+    void placeBet_StoredAfterRoundClosed_UndoneAndRefunded() {
+        // Given: the round closes, and gives up waiting, while the bet is being stored
+        openRound();
+        when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
+        when(playerService.tryDebit(testPlayer, BigDecimal.valueOf(100))).thenReturn(true);
+        when(betStore.store(any(Bet.class))).thenAnswer(invocation -> {
+            assertTrue(gameService.takeBets(testGameRound).isEmpty());
+            return invocation.getArgument(0);
+        });
+
+        // When
+        assertThrows(IllegalStateException.class, () -> gameService.placeBet(betRequest));
+
+        // Then
+        verify(betRepository).deleteByGameRoundIdAndPlayerId(testGameRound.getId(), testPlayer.getId());
+        verify(playerService).refund(testPlayer, BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void placeBet_BettingClosed_ThrowsException() {
+        // Given
+        openRound();
+        gameService.closeBetting(testGameRound);
+
+        // When & Then
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class,
+                () -> gameService.placeBet(betRequest)
+        );
+
+        assertEquals("No active game round available", exception.getMessage());
+        verify(playerService, never()).getPlayerByNickname(anyString());
+    }
+
+    @Test
+    void completeRound_UsesBetsFromOpenBook() {
+        // Given
+        openRound();
+        when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
+        when(playerService.tryDebit(testPlayer, BigDecimal.valueOf(100))).thenReturn(true);
+        when(betStore.store(any(Bet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        gameService.placeBet(betRequest);
+
+        when(randomNumberProvider.nextInt(10)).thenReturn(4);
+        when(gameRoundRepository.claimSettlement(eq(1L), eq(GameRound.SettlementStatus.PAYING), anyCollection())).thenReturn(1);
+
+        // When
+        GameRoundResult result = gameService.completeRound(testGameRound);
+
+        // Then
+        assertEquals(GameRound.GameRoundStatus.COMPLETED, testGameRound.getStatus());
+        assertEquals(GameRound.SettlementStatus.SETTLED, testGameRound.getSettlementStatus());
+        verify(gameRoundRepository).updateSettlementStatus(1L, GameRound.SettlementStatus.SETTLED);
+        assertEquals(5, result.getWinningNumber());
+        assertEquals(1, result.getWinners().length);
+        assertEquals("testPlayer", result.getWinners()[0].getNickname());
+        verify(betRepository, never()).findByGameRoundId(anyLong());
+        verify(betRepository).settleWinningBets(eq(1L), eq(result.getWinningNumber()), any(BigDecimal.class));
+        verify(playerService).creditWinnings(eq(testPlayer), argThat(winnings -> winnings.compareTo(BigDecimal.valueOf(990)) == 0), eq(1L));
+        verify(leaderboardService).update(List.of(testPlayer));
+        assertTrue(gameService.getOpenBook().isEmpty());
+    }
+
+    @Test
+    void settleRound_NotDrawn_ThrowsException() {
+        // Given
+        openRound();
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> gameService.settleRound(testGameRound));
+        verify(betRepository, never()).settleWinningBets(anyLong(), anyInt(), any(BigDecimal.class));
+    }
+
+    @Test
+    void getExposure_TracksStakeAndLiabilityPerNumber() {
+        // Given
+        openRound();
+        when(playerService.getPlayerByNickname("testPlayer")).thenReturn(testPlayer);
+        when(playerService.tryDebit(testPlayer, BigDecimal.valueOf(100))).thenReturn(true);
+        when(betStore.store(any(Bet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        gameService.placeBet(betRequest);
+
+        // When
+        RoundExposure exposure = gameService.getExposure().orElseThrow();
+
+        // Then
+        assertEquals(1, exposure.getBetCount());
+        assertEquals(10_000L, exposure.getTotalStakeCents());
+        assertEquals(10_000L, exposure.getStakeCents()[4]);
+        assertEquals(99_000L, exposure.getLiabilityCents()[4]);
+        assertEquals(0L, exposure.getLiabilityCents()[0]);
+        assertEquals(99_000L, exposure.getMaxLiabilityCents());
+    }
+
+    private void openRound() {
+        when(gameRoundRepository.save(any(GameRound.class))).thenReturn(testGameRound);
+        gameService.createNewRound();
     }
 }
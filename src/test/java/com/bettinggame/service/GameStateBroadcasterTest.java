@@ -0,0 +1,152 @@
+package com.bettinggame.service;
+
+import com.bettinggame.config.CborMessageConverter;
+import com.bettinggame.config.PayloadFormatInterceptor;
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.GameState;
+import com.bettinggame.util.Cents;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameStateBroadcasterTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private PayloadFormatInterceptor payloadFormats;
+
+    private final CborMessageConverter cborMessageConverter = new CborMessageConverter();
+
+    private GameStateBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new GameStateBroadcaster(messagingTemplate, Jackson2ObjectMapperBuilder.json().build(), cborMessageConverter,
+                payloadFormats, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void publishState_SendsEachPhaseChange() {
+        // When: CLOSE and DRAW are separate scheduler events, so both phases go out
+        broadcaster.publishState(state(1L, "BETTING_CLOSED"));
+        broadcaster.publishState(state(1L, "ROUND_COMPLETE"));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(2)).send(eq(GameStateBroadcaster.GAME_STATE_TOPIC), captor.capture());
+        String closed = new String(captor.getAllValues().get(0).getPayload(), StandardCharsets.UTF_8);
+        String complete = new String(captor.getAllValues().get(1).getPayload(), StandardCharsets.UTF_8);
+        assertTrue(closed.contains("BETTING_CLOSED"));
+        assertTrue(complete.contains("ROUND_COMPLETE"));
+        assertFalse(complete.contains("timeRemaining")); // unset fields are left out
+    }
+
+    @Test
+    void publishState_SkipsUnchangedPhase() {
+        // Given
+        broadcaster.publishState(state(1L, "BETTING_OPEN"));
+
+        // When
+        broadcaster.publishState(state(1L, "BETTING_OPEN"));
+        broadcaster.publishState("/topic/tables/1/game-state", state(1L, "BETTING_OPEN"));
+
+        // Then: the table topic tracks its own last state
+        verify(messagingTemplate, times(1)).send(eq(GameStateBroadcaster.GAME_STATE_TOPIC), any(Message.class));
+        verify(messagingTemplate, times(1)).send(eq("/topic/tables/1/game-state"), any(Message.class));
+    }
+
+    @Test
+    void send_CborSubscribers_AlsoGetCompactBinaryCopy() throws Exception {
+        // Given
+        LocalDateTime endTime = LocalDateTime.of(2024, 5, 1, 12, 0, 30, 250_000_000);
+        GameRoundResult result = GameRoundResult.builder()
+                .roundId(7L)
+                .winningNumber(3)
+                .endTime(endTime)
+                .winners(new GameRoundResult.WinnerInfo[]{
+                        new GameRoundResult.WinnerInfo("alice", new BigDecimal("99.00"))})
+                .build();
+        when(payloadFormats.hasSubscribers("/topic/cbor/round-results")).thenReturn(true);
+
+        // When
+        broadcaster.send("/topic/round-results", result);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/round-results"), any(Message.class));
+        verify(messagingTemplate).send(eq("/topic/cbor/round-results"), captor.capture());
+        Message<byte[]> binary = captor.getValue();
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, binary.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+
+        JsonNode tree = cborMessageConverter.getObjectMapper().readTree(binary.getPayload());
+        assertEquals(9900, tree.at("/winners/0/winnings").longValue());
+        assertEquals(endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), tree.get("endTime").longValue());
+        assertEquals(result, cborMessageConverter.getObjectMapper().readValue(binary.getPayload(), GameRoundResult.class));
+    }
+
+    @Test
+    void send_CborSubscribers_RoundHalfCentsLikeCents() throws Exception {
+        // Given: half a cent, which half-even rounding would send as 12
+        GameRoundResult result = GameRoundResult.builder()
+                .roundId(7L)
+                .winners(new GameRoundResult.WinnerInfo[]{
+                        new GameRoundResult.WinnerInfo("alice", new BigDecimal("0.125"))})
+                .build();
+        when(payloadFormats.hasSubscribers("/topic/cbor/round-results")).thenReturn(true);
+
+        // When
+        broadcaster.send("/topic/round-results", result);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/cbor/round-results"), captor.capture());
+        JsonNode tree = cborMessageConverter.getObjectMapper().readTree(captor.getValue().getPayload());
+        assertEquals(Cents.of(new BigDecimal("0.125")), tree.at("/winners/0/winnings").longValue());
+        assertEquals(13, tree.at("/winners/0/winnings").longValue());
+    }
+
+    @Test
+    void send_WithoutCborSubscribers_SendsJsonOnly() {
+        // When
+        broadcaster.send("/topic/round-results", GameRoundResult.builder().roundId(7L).build());
+
+        // Then
+        verify(messagingTemplate, times(1)).send(anyString(), any(Message.class));
+        verify(messagingTemplate).send(eq("/topic/round-results"), any(Message.class));
+    }
+
+    private GameState state(Long roundId, String phase) {
+        return GameState.builder()
+                .currentRoundId(roundId)
+                .phase(phase)
+                .serverTime(System.currentTimeMillis())
+                .build();
+    }
+}
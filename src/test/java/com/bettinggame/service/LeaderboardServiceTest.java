@@ -0,0 +1,90 @@
+package com.bettinggame.service;
+
+import com.bettinggame.dto.LeaderboardEntry;
+import com.bettinggame.dto.LeaderboardPage;
+import com.bettinggame.dto.PlayerStanding;
+import com.bettinggame.model.Player;
+import com.bettinggame.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private GameStateBroadcaster broadcaster;
+
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        leaderboardService = new LeaderboardService(playerRepository, broadcaster, 3, 2);
+        when(playerRepository.findTopWinners(any(Pageable.class))).thenReturn(List.of(
+                standing(1, 500), standing(2, 300), standing(3, 100)));
+        leaderboardService.start();
+    }
+
+    @Test
+    void update_PlayerOvertakesLeaderAndWeakestDropsOut() {
+        // When
+        leaderboardService.update(List.of(player(4, 600)));
+
+        // Then
+        List<LeaderboardEntry> top = leaderboardService.top(10);
+        assertEquals(3, top.size());
+        assertEquals("player4", top.get(0).getNickname());
+        assertEquals(1, top.get(0).getRank());
+        assertEquals("player2", top.get(2).getNickname());
+        verify(broadcaster).send(eq(LeaderboardService.LEADERBOARD_TOPIC), anyList());
+    }
+
+    @Test
+    void update_BelowTopK_IsIgnored() {
+        // When
+        leaderboardService.update(List.of(player(5, 50)));
+
+        // Then
+        assertEquals("player3", leaderboardService.top(3).get(2).getNickname());
+        verifyNoInteractions(broadcaster);
+    }
+
+    @Test
+    void page_ReturnsRankedSlice() {
+        // When
+        LeaderboardPage page = leaderboardService.page(1, 2);
+
+        // Then
+        assertEquals(3, page.getTotalEntries());
+        assertEquals(1, page.getEntries().size());
+        assertEquals(3, page.getEntries().get(0).getRank());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(page.getEntries().get(0).getTotalWinnings()));
+    }
+
+    private PlayerStanding standing(long id, long totalWinnings) {
+        return new PlayerStanding(id, "player" + id, BigDecimal.valueOf(totalWinnings));
+    }
+
+    private Player player(long id, long totalWinnings) {
+        return Player.builder()
+                .id(id)
+                .nickname("player" + id)
+                .totalWinnings(BigDecimal.valueOf(totalWinnings))
+                .build();
+    }
+}
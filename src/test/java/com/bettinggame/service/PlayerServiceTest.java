@@ -1,12 +1,13 @@
 package com.bettinggame.service;
 
 import com.bettinggame.dto.PlayerRegistrationRequest;
+import com.bettinggame.ledger.BalanceLedger;
 import com.bettinggame.model.Player;
 import com.bettinggame.repository.PlayerRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -24,7 +25,9 @@ class PlayerServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
-    @InjectMocks
+    @Mock
+    private BalanceLedger balanceLedger;
+
     private PlayerService playerService;
 
     private PlayerRegistrationRequest registrationRequest;
@@ -32,6 +35,8 @@ class PlayerServiceTest {
 
     @BeforeEach
     void setUp() {
+        playerService = new PlayerService(playerRepository, balanceLedger, Caffeine.newBuilder().build());
+
         registrationRequest = new PlayerRegistrationRequest();
         registrationRequest.setNickname("testPlayer");
         registrationRequest.setInitialBalance(BigDecimal.valueOf(1000));
@@ -105,4 +110,37 @@ class PlayerServiceTest {
         assertEquals("Player not found: nonexistent", exception.getMessage());
         verify(playerRepository).findByNickname("nonexistent");
     }
+
+    @Test
+    void findByNickname_SecondLookup_ServedFromCacheWithLiveBalance() {
+        // Given
+        when(playerRepository.findByNickname("testPlayer")).thenReturn(Optional.of(testPlayer));
+        playerService.findByNickname("testPlayer");
+        doAnswer(invocation -> {
+            invocation.<Player>getArgument(0).setBalance(BigDecimal.valueOf(900));
+            return null;
+        }).when(balanceLedger).applyTo(testPlayer);
+
+        // When
+        Player result = playerService.getPlayerByNickname("testPlayer");
+
+        // Then
+        assertEquals(BigDecimal.valueOf(900), result.getBalance());
+        verify(playerRepository, times(1)).findByNickname("testPlayer");
+    }
+
+    @Test
+    void updatePlayer_InvalidatesCachedPlayer() {
+        // Given
+        when(playerRepository.findByNickname("testPlayer")).thenReturn(Optional.of(testPlayer));
+        when(playerRepository.save(testPlayer)).thenReturn(testPlayer);
+        playerService.findByNickname("testPlayer");
+
+        // When
+        playerService.updatePlayer(testPlayer);
+        playerService.findByNickname("testPlayer");
+
+        // Then
+        verify(playerRepository, times(2)).findByNickname("testPlayer");
+    }
 }
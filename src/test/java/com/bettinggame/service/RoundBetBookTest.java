@@ -0,0 +1,85 @@
+package com.bettinggame.service;
+
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundBetBookTest {
+
+    private final RoundBetBook book = new RoundBetBook(GameRound.builder().id(1L).build(),
+            TimeUnit.MILLISECONDS.toNanos(20));
+
+    @Test
+    void close_ReturnsConfirmedBets() {
+        // Given
+        Bet bet = bet(5);
+        book.record(1L, bet);
+
+        // When
+        boolean confirmed = book.confirm(1L, bet);
+        List<Bet> settled = book.close();
+
+        // Then
+        assertTrue(confirmed);
+        assertEquals(List.of(bet), settled);
+    }
+
+    @Test
+    void close_TimesOut_DropsInFlightBetAndRefusesItsLateConfirm() {
+        // Given: one confirmed bet and one still being persisted
+        Bet confirmed = bet(5);
+        Bet stuck = bet(7);
+        book.record(1L, confirmed);
+        book.confirm(1L, confirmed);
+        book.record(2L, stuck);
+
+        // When
+        List<Bet> settled = book.close();
+
+        // Then
+        assertEquals(List.of(confirmed), settled);
+        assertFalse(book.confirm(2L, stuck));
+        assertThrows(IllegalStateException.class, () -> book.record(3L, bet(1)));
+    }
+
+    @Test
+    void close_TimesOut_RemovesDroppedBetFromExposure() {
+        // Given
+        Bet confirmed = bet(5);
+        Bet stuck = bet(7);
+        book.record(1L, confirmed);
+        book.confirm(1L, confirmed);
+        book.record(2L, stuck);
+
+        // When
+        book.close();
+
+        // Then
+        assertEquals(1000, book.getExposure().stakeCents(5));
+        assertEquals(0, book.getExposure().stakeCents(7));
+        assertEquals(1000, book.getExposure().totalStakeCents());
+    }
+
+    @Test
+    void record_SecondBetOfPlayerInFlight_IsDuplicate() {
+        // Given
+        book.record(1L, bet(5));
+
+        // When & Then
+        assertFalse(book.record(1L, bet(6)));
+        assertEquals(1, book.size());
+    }
+
+    private Bet bet(int number) {
+        return Bet.builder()
+                .betNumber(number)
+                .betAmount(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,234 @@
+package com.bettinggame.service;
+
+import com.bettinggame.dto.GameRoundResult;
+import com.bettinggame.dto.SettlementNotice;
+import com.bettinggame.model.Bet;
+import com.bettinggame.model.GameRound;
+import com.bettinggame.model.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementServiceTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private GameStateBroadcaster broadcaster;
+
+    private SettlementService settlementService;
+
+    private GameRound round;
+    private List<Bet> bets;
+
+    @BeforeEach
+    void setUp() {
+        settlementService = new SettlementService(gameService, leaderboardService, broadcaster,
+                new SimpleMeterRegistry(), 1, 2, 3, 1, 60_000);
+        settlementService.start();
+
+        round = GameRound.builder()
+                .id(10L)
+                .winningNumber(4)
+                .status(GameRound.GameRoundStatus.COMPLETED)
+                .settlementStatus(GameRound.SettlementStatus.PENDING)
+                .build();
+        bets = new ArrayList<>();
+        for (int number = 3; number <= 5; number++) {
+            bets.add(Bet.builder()
+                    .player(Player.builder().id((long) number).nickname("player" + number).build())
+                    .gameRound(round)
+                    .betNumber(number)
+                    .betAmount(BigDecimal.TEN)
+                    .build());
+        }
+        lenient().when(gameService.settleWinningBets(round)).thenReturn(true);
+        lenient().when(gameService.payWinners(eq(round), anyList())).thenAnswer(invocation -> {
+            Collection<Bet> batch = invocation.getArgument(1);
+            List<Bet> winners = batch.stream().filter(bet -> bet.getBetNumber() == 4).toList();
+            winners.forEach(bet -> {
+                bet.setIsWinner(true);
+                bet.setWinnings(BigDecimal.valueOf(99));
+            });
+            return winners;
+        });
+        lenient().when(gameService.buildResult(eq(round), anyList())).thenAnswer(invocation -> GameRoundResult.builder()
+                .roundId(round.getId())
+                .winners(new GameRoundResult.WinnerInfo[invocation.<List<Bet>>getArgument(1).size()])
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        settlementService.stop();
+    }
+
+    @Test
+    void submit_PaysInBatchesAndNotifiesEveryBettor() throws Exception {
+        // When
+        GameRoundResult result = settlementService.submit(1, round, bets).get(5, TimeUnit.SECONDS).orElseThrow();
+
+        // Then: three bets in batches of two
+        assertEquals(1, result.getWinners().length);
+        verify(gameService).settleWinningBets(round);
+        verify(gameService, times(2)).payWinners(eq(round), anyList());
+        verify(leaderboardService).update(List.of(bets.get(1).getPlayer()));
+
+        ArgumentCaptor<SettlementNotice> notices = ArgumentCaptor.forClass(SettlementNotice.class);
+        verify(broadcaster, times(3)).sendToUser(anyString(), eq(SettlementService.SETTLEMENT_QUEUE), notices.capture());
+        SettlementNotice winnerNotice = notices.getAllValues().get(1);
+        assertTrue(winnerNotice.isWinner());
+        assertEquals(BigDecimal.valueOf(99), winnerNotice.getWinnings());
+        assertFalse(notices.getAllValues().get(0).isWinner());
+        verify(broadcaster).sendToUser(eq("player4"), eq(SettlementService.SETTLEMENT_QUEUE), any());
+        verify(gameService).updateSettlementStatus(round, GameRound.SettlementStatus.SETTLED);
+    }
+
+    @Test
+    void submit_RetriesMarkingWinnersBeforePayingAnyone() throws Exception {
+        // Given
+        doThrow(new QueryTimeoutException("lock timeout"))
+                .doReturn(true)
+                .when(gameService).settleWinningBets(round);
+
+        // When
+        settlementService.submit(1, round, bets).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(gameService, times(2)).settleWinningBets(round);
+        verify(gameService, times(2)).payWinners(eq(round), anyList());
+    }
+
+    @Test
+    void submit_MarkingWinnersKeepsFailing_MarksRoundFailedAndPaysNobody() {
+        // Given
+        when(gameService.settleWinningBets(round)).thenThrow(new QueryTimeoutException("lock timeout"));
+
+        // When
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> settlementService.submit(1, round, bets).get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertInstanceOf(QueryTimeoutException.class, failure.getCause());
+        verify(gameService, times(3)).settleWinningBets(round);
+        verify(gameService).updateSettlementStatus(round, GameRound.SettlementStatus.FAILED);
+        verify(gameService, never()).updateSettlementStatus(round, GameRound.SettlementStatus.SETTLED);
+        verify(gameService, never()).payWinners(any(), anyList());
+    }
+
+    @Test
+    void submit_RoundAlreadyClaimed_PaysNobody() throws Exception {
+        // Given
+        when(gameService.settleWinningBets(round)).thenReturn(false);
+
+        // When
+        Optional<GameRoundResult> result = settlementService.submit(1, round, bets).get(5, TimeUnit.SECONDS);
+
+        // Then: the settler that holds the round reports its result
+        assertTrue(result.isEmpty());
+        verify(gameService, never()).payWinners(any(), anyList());
+        verify(gameService, never()).updateSettlementStatus(any(), any());
+    }
+
+    @Test
+    void submit_NoticeFails_StillSettlesRound() throws Exception {
+        // Given
+        doThrow(new IllegalStateException("broker down"))
+                .when(broadcaster).sendToUser(eq("player3"), anyString(), any());
+
+        // When
+        GameRoundResult result = settlementService.submit(1, round, bets).get(5, TimeUnit.SECONDS).orElseThrow();
+
+        // Then
+        assertEquals(1, result.getWinners().length);
+        verify(broadcaster, times(3)).sendToUser(anyString(), eq(SettlementService.SETTLEMENT_QUEUE), any());
+        verify(gameService).updateSettlementStatus(round, GameRound.SettlementStatus.SETTLED);
+    }
+
+    @Test
+    void recoverUnsettledRounds_SettlesFailedRoundFromStoredBets() throws Exception {
+        // Given
+        round.setSettlementStatus(GameRound.SettlementStatus.FAILED);
+        when(gameService.findUnsettledRounds(any(LocalDateTime.class))).thenReturn(List.of(round));
+        when(gameService.takeBets(round)).thenReturn(bets);
+
+        // When
+        int recovered = settlementService.recoverUnsettledRounds();
+
+        // Then
+        assertEquals(1, recovered);
+        verify(gameService, timeout(5_000)).updateSettlementStatus(round, GameRound.SettlementStatus.SETTLED);
+        verify(gameService, times(2)).payWinners(eq(round), anyList());
+        verify(leaderboardService, timeout(5_000)).update(List.of(bets.get(1).getPlayer()));
+    }
+
+    @Test
+    void recoverUnsettledRounds_PayingRoundPaysOnlyUnpaidWinners() throws Exception {
+        // Given: cut off after crediting some winners; only one winning bet is still unpaid
+        round.setSettlementStatus(GameRound.SettlementStatus.PAYING);
+        Bet unpaid = bets.get(1);
+        unpaid.setIsWinner(true);
+        when(gameService.findUnsettledRounds(any(LocalDateTime.class))).thenReturn(List.of(round));
+        when(gameService.takeUnpaidWinningBets(round)).thenReturn(List.of(unpaid));
+
+        // When
+        int recovered = settlementService.recoverUnsettledRounds();
+
+        // Then
+        assertEquals(1, recovered);
+        verify(gameService, timeout(5_000)).updateSettlementStatus(round, GameRound.SettlementStatus.SETTLED);
+        verify(gameService, never()).settleWinningBets(round);
+        verify(gameService, never()).takeBets(round);
+        verify(gameService).payWinners(round, List.of(unpaid));
+    }
+
+    @Test
+    void recoverUnsettledRounds_SkipsRoundStillSettlingHere() throws Exception {
+        // Given: the original settlement is still running
+        CountDownLatch release = new CountDownLatch(1);
+        when(gameService.settleWinningBets(round)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        CompletableFuture<Optional<GameRoundResult>> settling = settlementService.submit(1, round, bets);
+        lenient().when(gameService.findUnsettledRounds(any(LocalDateTime.class))).thenReturn(List.of(round));
+
+        // When
+        int recovered = settlementService.recoverUnsettledRounds();
+        release.countDown();
+
+        // Then
+        assertEquals(0, recovered);
+        assertTrue(settling.get(5, TimeUnit.SECONDS).isPresent());
+        verify(gameService, never()).takeBets(round);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bettinggame.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RtpSimulatorTest {
+
+    private final RtpSimulator simulator = new RtpSimulator();
+
+    @Test
+    void simulate_RtpConvergesToExpected() {
+        // Given
+        SimulationConfig config = SimulationConfig.builder()
+                .rounds(2_000_000)
+                .playersPerRound(10)
+                .seed(42L)
+                .build();
+
+        // When
+        SimulationReport report = simulator.simulate(config);
+
+        // Then: 9.9x multiplier with a 1/10 chance gives 99% RTP
+        assertEquals(20_000_000L, report.getBets());
+        assertTrue(report.getCi99Low() <= 0.99 && 0.99 <= report.getCi99High(),
+                String.format("99%% RTP should lie in [%.5f, %.5f]", report.getCi99Low(), report.getCi99High()));
+        // Per-round return is 9.9 * Binomial(10, 0.1) / 10, whose variance is 9.9^2 * 0.09 / 10
+        assertEquals(0.88209, report.getVariance(), 0.02);
+    }
+
+    @Test
+    void simulate_SameSeedIsReproducible() {
+        // Given
+        SimulationConfig config = SimulationConfig.builder()
+                .rounds(500_000)
+                .seed(7L)
+                .build();
+
+        // When
+        SimulationReport first = simulator.simulate(config);
+        SimulationReport second = simulator.simulate(config);
+
+        // Then
+        assertEquals(first.getWins(), second.getWins());
+        assertEquals(first.getTotalPayoutCents(), second.getTotalPayoutCents());
+    }
+
+    @Test
+    void simulate_InvalidConfig_ThrowsException() {
+        SimulationConfig config = SimulationConfig.builder().rounds(0).build();
+
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(config));
+    }
+}